@@ -0,0 +1,100 @@
+package com.sergisalas.pokemonapi.benchmark;
+
+import com.sergisalas.pokemonapi.domain.Pokemon;
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic fixtures shaped like the PokeAPI catalogue, shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final int CATALOGUE_SIZE = 1500;
+
+    private BenchmarkData() {
+    }
+
+    static List<Pokemon> pokemons(int count) {
+        Random random = new Random(42);
+        List<Pokemon> pokemons = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Pokemon pokemon = new Pokemon();
+            pokemon.setPokeApiId(i);
+            pokemon.setName("pokemon-" + i);
+            pokemon.setWeight(1 + random.nextInt(10000));
+            pokemon.setHeight(1 + random.nextInt(200));
+            pokemon.setBaseExperience(random.nextInt(400));
+            pokemons.add(pokemon);
+        }
+        return pokemons;
+    }
+
+    /**
+     * The same catalogue as {@link #pokemons}, shaped like the {@code PokemonDto} projection rows the
+     * ranking index is built from.
+     */
+    static List<PokemonDto> rankingRows(int count) {
+        Random random = new Random(7);
+        return pokemons(count).stream()
+                .map(pokemon -> new PokemonDto(pokemon.getPokeApiId(), pokemon.getName(), pokemon.getWeight(),
+                        pokemon.getHeight(), pokemon.getBaseExperience(), 1 + random.nextInt(255),
+                        5 + random.nextInt(185), 5 + random.nextInt(230), 10 + random.nextInt(185),
+                        20 + random.nextInt(210), 5 + random.nextInt(195)))
+                .toList();
+    }
+
+    /**
+     * A detail document with the same structure and rough size as a real one: most of the bytes
+     * are in the moves, game indices and sprites the sync does not map.
+     */
+    static String detailJson(int id) {
+        StringBuilder json = new StringBuilder(64 * 1024);
+        json.append("{\"abilities\":[{\"ability\":{\"name\":\"static\",\"url\":\"https://pokeapi.co/api/v2/ability/9/\"},")
+                .append("\"is_hidden\":false,\"slot\":1}],")
+                .append("\"base_experience\":112,\"game_indices\":[");
+        for (int i = 0; i < 20; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"game_index\":").append(84 + i)
+                    .append(",\"version\":{\"name\":\"version-").append(i)
+                    .append("\",\"url\":\"https://pokeapi.co/api/v2/version/").append(i).append("/\"}}");
+        }
+        json.append("],\"height\":4,\"id\":").append(id).append(",\"moves\":[");
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"move\":{\"name\":\"move-").append(i)
+                    .append("\",\"url\":\"https://pokeapi.co/api/v2/move/").append(i).append("/\"},")
+                    .append("\"version_group_details\":[{\"level_learned_at\":").append(i % 50)
+                    .append(",\"move_learn_method\":{\"name\":\"level-up\",\"url\":\"https://pokeapi.co/api/v2/move-learn-method/1/\"},")
+                    .append("\"version_group\":{\"name\":\"red-blue\",\"url\":\"https://pokeapi.co/api/v2/version-group/1/\"}}]}");
+        }
+        json.append("],\"name\":\"pikachu\",\"sprites\":{");
+        for (int i = 0; i < 8; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"sprite_").append(i)
+                    .append("\":\"https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/")
+                    .append(id).append('/').append(i).append(".png\"");
+        }
+        json.append("},\"stats\":[");
+        String[] stats = {"hp", "attack", "defense", "special-attack", "special-defense", "speed"};
+        for (int i = 0; i < stats.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"base_stat\":").append(35 + 10 * i).append(",\"effort\":0,\"stat\":{\"name\":\"")
+                    .append(stats[i]).append("\",\"url\":\"https://pokeapi.co/api/v2/stat/").append(i + 1).append("/\"}}");
+        }
+        json.append("],")
+                .append("\"types\":[{\"slot\":1,\"type\":{\"name\":\"electric\",\"url\":\"https://pokeapi.co/api/v2/type/13/\"}}],")
+                .append("\"weight\":60}");
+        return json.toString();
+    }
+}
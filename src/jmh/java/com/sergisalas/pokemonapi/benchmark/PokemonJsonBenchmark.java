@@ -0,0 +1,67 @@
+package com.sergisalas.pokemonapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sergisalas.pokemonapi.service.PokemonDetailParser;
+import com.sergisalas.pokemonapi.service.dto.PokemonDetailResponse;
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of detail documents during sync and serialization of top-N responses.
+ * Uses an ObjectMapper configured like Spring Boot's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PokemonJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int topN;
+
+    private ObjectMapper objectMapper;
+    private byte[] detailJsonBytes;
+    private List<PokemonDto> topResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        detailJsonBytes = BenchmarkData.detailJson(25).getBytes(StandardCharsets.UTF_8);
+        topResponse = BenchmarkData.rankingRows(topN);
+    }
+
+    /**
+     * Former sync path: decode the body to a String, then bind it.
+     */
+    @Benchmark
+    public PokemonDetailResponse parseDetailResponse() throws Exception {
+        return objectMapper.readValue(new String(detailJsonBytes, StandardCharsets.UTF_8), PokemonDetailResponse.class);
+    }
+
+    @Benchmark
+    public PokemonDetailResponse streamDetailResponse() throws Exception {
+        return PokemonDetailParser.parse(objectMapper.getFactory(), detailJsonBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeTopResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(topResponse);
+    }
+}
@@ -0,0 +1,50 @@
+package com.sergisalas.pokemonapi.benchmark;
+
+import com.sergisalas.pokemonapi.service.PokemonRankingIndex;
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory part of an index rebuild: the projection rows read from the database (or the snapshot
+ * file) are sorted once per ranking and hashed by id and name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PokemonRankingIndexBenchmark {
+
+    @Param({"100", "1500"})
+    private int size;
+
+    private List<PokemonDto> rows;
+    private PokemonRankingIndex pokemonRankingIndex;
+
+    @Setup
+    public void setUp() {
+        rows = BenchmarkData.rankingRows(size);
+        // load() never touches the repository
+        pokemonRankingIndex = new PokemonRankingIndex(null);
+    }
+
+    @Benchmark
+    public PokemonRankingIndex loadIndex() {
+        pokemonRankingIndex.load(rows);
+        return pokemonRankingIndex;
+    }
+}
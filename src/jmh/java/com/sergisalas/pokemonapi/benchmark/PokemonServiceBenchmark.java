@@ -0,0 +1,99 @@
+package com.sergisalas.pokemonapi.benchmark;
+
+import com.sergisalas.pokemonapi.PokemonApiApplication;
+import com.sergisalas.pokemonapi.persistence.PokemonRepository;
+import com.sergisalas.pokemonapi.persistence.PokemonTopQuery;
+import com.sergisalas.pokemonapi.service.PokemonRanking;
+import com.sergisalas.pokemonapi.service.PokemonRankingIndex;
+import com.sergisalas.pokemonapi.service.PokemonService;
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-N query paths against an H2 database loaded with a full-size catalogue: the precomputed
+ * leaderboard query, the /top page query, the in-memory ranking index and the service entry point.
+ * The cache is disabled, so the service benchmark measures a miss (validation, index, metrics) rather
+ * than a Caffeine hit, and the snapshot file and scheduled sync are switched off so nothing but the
+ * fixture is loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PokemonServiceBenchmark {
+
+    @Param({"10", "100"})
+    private int numPokemon;
+
+    private ConfigurableApplicationContext context;
+    private PokemonRepository pokemonRepository;
+    private PokemonRankingIndex pokemonRankingIndex;
+    private PokemonService pokemonService;
+
+    @Setup
+    public void setUp() {
+        SpringApplication application = new SpringApplication(PokemonApiApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark",
+                "--logging.level.root=WARN",
+                "--spring.cache.type=none",
+                "--pokeapi.snapshot.path=",
+                "--pokeapi.snapshot.sync-on-startup=false",
+                "--pokeapi.sync.cron=-");
+
+        pokemonRepository = context.getBean(PokemonRepository.class);
+        pokemonRankingIndex = context.getBean(PokemonRankingIndex.class);
+        pokemonService = context.getBean(PokemonService.class);
+
+        pokemonRepository.upsertAll(BenchmarkData.pokemons(BenchmarkData.CATALOGUE_SIZE));
+        pokemonRepository.refreshLeaderboards();
+        pokemonRankingIndex.rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PokemonDto> leaderboardTopByWeight() {
+        return pokemonRepository.findLeaderboard(PokemonRanking.WEIGHT.name(), numPokemon);
+    }
+
+    @Benchmark
+    public List<PokemonDto> topPageByWeight() {
+        return pokemonRepository.findTop(new PokemonTopQuery(
+                "weight", Sort.Direction.DESC, numPokemon + 1, null, null, null, null, null));
+    }
+
+    @Benchmark
+    public List<PokemonDto> rankingIndexTopByWeight() {
+        return pokemonRankingIndex.top(PokemonRanking.WEIGHT, numPokemon).orElseThrow();
+    }
+
+    @Benchmark
+    public List<PokemonDto> serviceHeaviestUncached() {
+        return pokemonService.getHeaviestPokemon(numPokemon);
+    }
+}
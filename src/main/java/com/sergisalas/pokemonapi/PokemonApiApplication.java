@@ -1,9 +1,14 @@
 package com.sergisalas.pokemonapi;
 
+import com.sergisalas.pokemonapi.config.PokemonApiRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @SpringBootApplication
+@ImportRuntimeHints(PokemonApiRuntimeHints.class)
 public class PokemonApiApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,97 @@
+package com.sergisalas.pokemonapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stops calling the upstream once {@code failureThreshold} consecutive calls have failed (I/O error,
+ * 429 or 5xx, after retries). While open every call is rejected immediately with
+ * {@link CircuitBreakerOpenException}; once {@code openDuration} has elapsed a single trial call is let
+ * through, and its outcome closes the circuit again or re-opens it.
+ * <p>
+ * Must come before {@link RetryInterceptor} in the chain, so a retried call counts as one failure.
+ */
+@Slf4j
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+
+    public CircuitBreakerInterceptor(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        acquirePermission(request);
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            onFailure();
+            throw e;
+        }
+
+        int status = response.getStatusCode().value();
+        if (status == 429 || status >= 500) {
+            onFailure();
+        } else {
+            onSuccess();
+        }
+        return response;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private void acquirePermission(HttpRequest request) {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return;
+        }
+        if (current == State.OPEN
+                && System.nanoTime() - openedAt.get() >= openDurationNanos
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            log.info("Circuit breaker half-open, sending a trial request to {}", request.getURI().getHost());
+            return;
+        }
+        throw new CircuitBreakerOpenException("Circuit breaker is open, not calling " + request.getURI());
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Circuit breaker closed");
+        }
+    }
+
+    private void onFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN || (current == State.CLOSED && failures >= failureThreshold)) {
+            openedAt.set(System.nanoTime());
+            if (state.compareAndSet(current, State.OPEN)) {
+                log.warn("Circuit breaker opened after {} consecutive failures", failures);
+            }
+        }
+    }
+}
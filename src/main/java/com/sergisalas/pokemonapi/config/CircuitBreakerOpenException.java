@@ -0,0 +1,13 @@
+package com.sergisalas.pokemonapi.config;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown instead of calling the upstream while {@link CircuitBreakerInterceptor} is open.
+ */
+public class CircuitBreakerOpenException extends RestClientException {
+
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,57 @@
+package com.sergisalas.pokemonapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Splits database access into two independently sized Hikari pools, enabled with
+ * {@code pokeapi.datasource.routing.enabled=true}: a write pool for the sync and a read pool for the
+ * queries, so a long sync transaction cannot take every connection the top-N readers need.
+ *
+ * <p>Both pools start from {@code spring.datasource.*}; {@code pokeapi.datasource.write.*} and
+ * {@code pokeapi.datasource.read.*} bind any Hikari setting on top, e.g. {@code jdbc-url} to point the
+ * read pool at a replica. Transactions marked {@code readOnly} get a connection from the read pool,
+ * everything else (including work outside a transaction, such as Flyway) from the write pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pokeapi.datasource.routing.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("pokeapi.datasource.write")
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("pokemon-write");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("pokeapi.datasource.read")
+    public HikariDataSource readDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("pokemon-read");
+        return dataSource;
+    }
+
+    /**
+     * The proxy hands out a placeholder connection and only borrows a real one on the first statement.
+     * By then the transaction manager has marked it read-only or not, which decides the pool.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") DataSource writeDataSource,
+                                 @Qualifier("readDataSource") DataSource readDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(writeDataSource);
+        dataSource.setReadOnlyDataSource(readDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,19 @@
+package com.sergisalas.pokemonapi.config;
+
+import db.migration.common.V3__Compress_raw_json;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hands the Java migrations to Flyway as beans instead of letting it scan the classpath for them,
+ * which a native image cannot do. SQL migrations are still found through {@code spring.flyway.locations}.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public JavaMigration compressRawJson() {
+        return new V3__Compress_raw_json();
+    }
+}
@@ -0,0 +1,49 @@
+package com.sergisalas.pokemonapi.config;
+
+import com.sergisalas.pokemonapi.domain.GzipJsonConverter;
+import com.sergisalas.pokemonapi.domain.Pokemon;
+import com.sergisalas.pokemonapi.domain.PokemonAbilitySlot;
+import com.sergisalas.pokemonapi.domain.PokemonLeaderboardEntry;
+import com.sergisalas.pokemonapi.domain.PokemonTypeSlot;
+import com.sergisalas.pokemonapi.service.dto.PokemonBatchDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonBatchRequest;
+import com.sergisalas.pokemonapi.service.dto.PokemonDetailDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonDetailResponse;
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonListResponse;
+import com.sergisalas.pokemonapi.service.dto.PokemonPageDto;
+import com.sergisalas.pokemonapi.service.dto.SyncJobDto;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and resource hints for the native image, for what the AOT engine cannot work out on
+ * its own: types Jackson binds outside controller signatures (the PokeAPI responses read by the
+ * sync, the export rows) and the DTOs Hibernate builds from JPQL constructor expressions. Binding
+ * hints cover the Lombok-generated getters and setters, which are ordinary methods by then.
+ */
+public class PokemonApiRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingHints.registerReflectionHints(hints.reflection(),
+                PokemonListResponse.class, PokemonDetailResponse.class,
+                PokemonDto.class, PokemonDetailDto.class, PokemonPageDto.class,
+                PokemonBatchRequest.class, PokemonBatchDto.class, SyncJobDto.class);
+
+        // SELECT new ...PokemonDto(...) / PokemonDetailDto(...)
+        hints.reflection().registerType(PokemonDto.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(PokemonDetailDto.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        for (Class<?> type : new Class<?>[] {Pokemon.class, PokemonTypeSlot.class, PokemonAbilitySlot.class,
+                PokemonLeaderboardEntry.class, PokemonLeaderboardEntry.Key.class}) {
+            hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.reflection().registerType(GzipJsonConverter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
@@ -1,14 +1,77 @@
 package com.sergisalas.pokemonapi.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class RestClientConfig {
 
+    @Value("${pokeapi.client.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${pokeapi.sync.request-timeout:10s}")
+    private Duration requestTimeout;
+
+    @Value("${pokeapi.client.retry.max-attempts:3}")
+    private int retryMaxAttempts;
+
+    @Value("${pokeapi.client.retry.initial-backoff:200ms}")
+    private Duration retryInitialBackoff;
+
+    @Value("${pokeapi.client.retry.max-backoff:5s}")
+    private Duration retryMaxBackoff;
+
+    @Value("${pokeapi.client.circuit-breaker.failure-threshold:20}")
+    private int circuitBreakerFailureThreshold;
+
+    @Value("${pokeapi.client.circuit-breaker.open-duration:30s}")
+    private Duration circuitBreakerOpenDuration;
+
+    /**
+     * One shared JDK client: it keeps a pool of persistent connections and multiplexes requests over
+     * HTTP/2 when the server supports it, falling back to HTTP/1.1 otherwise.
+     */
     @Bean
-    public RestClient restClient() {
-        return RestClient.create();
+    public HttpClient pokeApiHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Bean
+    public CircuitBreakerInterceptor pokeApiCircuitBreaker(MeterRegistry meterRegistry) {
+        CircuitBreakerInterceptor circuitBreaker =
+                new CircuitBreakerInterceptor(circuitBreakerFailureThreshold, circuitBreakerOpenDuration);
+        Gauge.builder("pokeapi.client.circuit.open", circuitBreaker,
+                        cb -> cb.getState() == CircuitBreakerInterceptor.State.CLOSED ? 0 : 1)
+                .description("1 while the PokeAPI circuit breaker is open or half-open")
+                .register(meterRegistry);
+        return circuitBreaker;
+    }
+
+    @Bean
+    public RestClient restClient(HttpClient pokeApiHttpClient,
+                                 CircuitBreakerInterceptor pokeApiCircuitBreaker,
+                                 MeterRegistry meterRegistry) {
+        // Per-request timeout so a single slow detail fetch cannot hold a sync permit forever
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(pokeApiHttpClient);
+        requestFactory.setReadTimeout(requestTimeout);
+
+        // Circuit breaker first so a call retried several times counts as a single failure
+        return RestClient.builder()
+                .requestFactory(requestFactory)
+                .requestInterceptor(pokeApiCircuitBreaker)
+                .requestInterceptor(new RetryInterceptor(retryMaxAttempts, retryInitialBackoff, retryMaxBackoff, meterRegistry))
+                .build();
     }
 }
@@ -0,0 +1,122 @@
+package com.sergisalas.pokemonapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries idempotent requests that fail with an I/O error or a transient status (429, 502, 503, 504),
+ * waiting an exponentially growing, fully jittered delay between attempts. A {@code Retry-After}
+ * header takes precedence over the computed delay; when it asks for longer than {@code maxBackoff}
+ * the response is returned as-is rather than stalling the caller.
+ * <p>
+ * Must be the last interceptor of the chain: only the innermost interceptor can execute the
+ * request more than once.
+ */
+@Slf4j
+public class RetryInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 502, 503, 504);
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final MeterRegistry meterRegistry;
+
+    public RetryInterceptor(int maxAttempts, Duration initialBackoff, Duration maxBackoff, MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!HttpMethod.GET.equals(request.getMethod()) && !HttpMethod.HEAD.equals(request.getMethod())) {
+            return execution.execute(request, body);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            ClientHttpResponse response;
+            try {
+                response = execution.execute(request, body);
+            } catch (IOException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(request, attempt, e.getClass().getSimpleName(), backoff(attempt));
+                continue;
+            }
+
+            int status = response.getStatusCode().value();
+            if (attempt >= maxAttempts || !RETRYABLE_STATUSES.contains(status)) {
+                return response;
+            }
+            int failedAttempt = attempt;
+            Duration delay = retryAfter(response.getHeaders()).orElseGet(() -> backoff(failedAttempt));
+            if (delay.compareTo(maxBackoff) > 0) {
+                return response;
+            }
+            response.close();
+            backOff(request, attempt, "http_" + status, delay);
+        }
+    }
+
+    /**
+     * Full jitter: a random delay between zero and {@code initialBackoff * 2^(attempt - 1)}, capped at
+     * {@code maxBackoff}, so concurrent sync workers do not retry in lockstep.
+     */
+    Duration backoff(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    /**
+     * {@code Retry-After} is either a number of seconds or an HTTP date.
+     */
+    static Optional<Duration> retryAfter(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim()))));
+        } catch (NumberFormatException e) {
+            try {
+                Duration untilDate = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return Optional.of(untilDate.isNegative() ? Duration.ZERO : untilDate);
+            } catch (DateTimeParseException ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private void backOff(HttpRequest request, int attempt, String reason, Duration delay) throws IOException {
+        log.debug("Retrying {} after {} (attempt {}/{}, waiting {} ms)",
+                request.getURI(), reason, attempt, maxAttempts, delay.toMillis());
+        meterRegistry.counter("pokeapi.client.retries", "reason", reason).increment();
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off before retrying " + request.getURI());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.sergisalas.pokemonapi.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores JSON documents gzip-compressed. PokeAPI detail documents are highly repetitive
+ * (urls, version names...) and typically shrink to a fraction of their size.
+ */
+@Converter
+public class GzipJsonConverter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(String json) {
+        return gzip(json);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] compressed) {
+        return gunzip(compressed);
+    }
+
+    public static byte[] gzip(String json) {
+        return json == null ? null : gzip(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compresses a document that is already UTF-8 encoded, e.g. a response body as received.
+     */
+    public static byte[] gzip(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 8));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress JSON document", e);
+        }
+        return out.toByteArray();
+    }
+
+    public static String gunzip(byte[] compressed) {
+        if (compressed == null) {
+            return null;
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress JSON document", e);
+        }
+    }
+}
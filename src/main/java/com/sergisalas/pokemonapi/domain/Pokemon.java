@@ -1,18 +1,43 @@
 package com.sergisalas.pokemonapi.domain;
 
 
+import jakarta.persistence.Basic;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Convert;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.Lob;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import jakarta.persistence.Id;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "Pokemons")
+@Table(name = "Pokemons", indexes = {
+        @Index(name = "ux_pokemons_poke_api_id", columnList = "pokeApiId", unique = true),
+        @Index(name = "ix_pokemons_weight", columnList = "weight DESC, pokeApiId DESC"),
+        @Index(name = "ix_pokemons_height", columnList = "height DESC, pokeApiId DESC"),
+        @Index(name = "ix_pokemons_base_experience", columnList = "baseExperience DESC, pokeApiId DESC"),
+        @Index(name = "ix_pokemons_hp", columnList = "hp DESC, pokeApiId DESC"),
+        @Index(name = "ix_pokemons_attack", columnList = "attack DESC, pokeApiId DESC"),
+        @Index(name = "ix_pokemons_defense", columnList = "defense DESC, pokeApiId DESC"),
+        @Index(name = "ix_pokemons_special_attack", columnList = "specialAttack DESC, pokeApiId DESC"),
+        @Index(name = "ix_pokemons_special_defense", columnList = "specialDefense DESC, pokeApiId DESC"),
+        @Index(name = "ix_pokemons_speed", columnList = "speed DESC, pokeApiId DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,8 +54,60 @@ public class Pokemon {
     private Integer height;
     private Integer baseExperience;
 
-    @Lob
+    // Base stats
+    private Integer hp;
+    private Integer attack;
+    private Integer defense;
+    private Integer specialAttack;
+    private Integer specialDefense;
+    private Integer speed;
+
+    // Keyed on pokeApiId rather than id: the sync upserts by pokeApiId and writes these rows itself
+    @ElementCollection
+    @CollectionTable(name = "pokemon_types",
+            joinColumns = @JoinColumn(name = "poke_api_id", referencedColumnName = "pokeApiId"),
+            indexes = @Index(name = "ix_pokemon_types_type_name", columnList = "type_name, poke_api_id"))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<PokemonTypeSlot> types = new ArrayList<>();
+
+    @ElementCollection
+    @CollectionTable(name = "pokemon_abilities",
+            joinColumns = @JoinColumn(name = "poke_api_id", referencedColumnName = "pokeApiId"),
+            indexes = @Index(name = "ix_pokemon_abilities_ability_name", columnList = "ability_name, poke_api_id"))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<PokemonAbilitySlot> abilities = new ArrayList<>();
+
+    // Loaded on first access only (needs the Hibernate bytecode enhancement configured in the pom).
+    // Stored gzip-compressed (bytea / varbinary) and decompressed transparently on read.
+    @Convert(converter = GzipJsonConverter.class)
+    @JdbcTypeCode(SqlTypes.VARBINARY)
+    @Basic(fetch = FetchType.LAZY)
     private String rawJson;
 
+    // The detail document exactly as received by the sync, which upserts these bytes as they are;
+    // rawJson is only decoded from them if something asks for it
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private byte[] rawJsonBytes;
+
+    private String contentHash;
+
+    private String etag;
+
     private Instant lastSynced;
+
+    public String getRawJson() {
+        if (rawJson == null && rawJsonBytes != null) {
+            rawJson = new String(rawJsonBytes, StandardCharsets.UTF_8);
+        }
+        return rawJson;
+    }
+
+    public void setRawJson(String rawJson) {
+        this.rawJson = rawJson;
+        this.rawJsonBytes = null;
+    }
 }
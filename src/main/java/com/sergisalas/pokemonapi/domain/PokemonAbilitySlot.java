@@ -0,0 +1,24 @@
+package com.sergisalas.pokemonapi.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An ability a Pokemon can have; {@code hidden} marks its hidden ability.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PokemonAbilitySlot {
+
+    private Integer slot;
+
+    @Column(name = "ability_name")
+    private String name;
+
+    private boolean hidden;
+}
@@ -0,0 +1,43 @@
+package com.sergisalas.pokemonapi.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Position of a Pokemon in one ranking, e.g. {@code WEIGHT} rank 1. The table is rewritten by the
+ * sync (see {@code PokemonLeaderboardRepository}) and only read through JPA.
+ */
+@Entity
+@Immutable
+@IdClass(PokemonLeaderboardEntry.Key.class)
+@Table(name = "pokemon_leaderboard")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PokemonLeaderboardEntry {
+
+    @Id
+    private String ranking;
+
+    @Id
+    private Integer rank;
+
+    private Integer pokeApiId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private String ranking;
+        private Integer rank;
+    }
+}
@@ -0,0 +1,22 @@
+package com.sergisalas.pokemonapi.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One of the (at most two) types of a Pokemon, e.g. slot 1 {@code grass}, slot 2 {@code poison}.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PokemonTypeSlot {
+
+    private Integer slot;
+
+    @Column(name = "type_name")
+    private String name;
+}
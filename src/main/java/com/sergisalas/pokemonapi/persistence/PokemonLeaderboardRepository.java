@@ -0,0 +1,13 @@
+package com.sergisalas.pokemonapi.persistence;
+
+/**
+ * Write side of the precomputed leaderboards read by {@link PokemonRepository#findLeaderboard}.
+ */
+public interface PokemonLeaderboardRepository {
+
+    /**
+     * Recomputes every ranking from the current {@code pokemons} rows. Runs in one transaction, so
+     * readers keep seeing the previous ranks until it commits and never a half-built ranking.
+     */
+    void refreshLeaderboards();
+}
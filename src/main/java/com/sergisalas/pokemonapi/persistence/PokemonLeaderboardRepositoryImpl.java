@@ -0,0 +1,39 @@
+package com.sergisalas.pokemonapi.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class PokemonLeaderboardRepositoryImpl implements PokemonLeaderboardRepository {
+
+    // Ranking name (a PokemonRanking constant) -> stat column; both are inlined, which keeps the SQL below injection-safe
+    private static final Map<String, String> LEADERBOARD_COLUMNS = Map.of(
+            "WEIGHT", "weight",
+            "HEIGHT", "height",
+            "BASE_EXPERIENCE", "base_experience",
+            "HP", "hp",
+            "ATTACK", "attack",
+            "DEFENSE", "defense",
+            "SPECIAL_ATTACK", "special_attack",
+            "SPECIAL_DEFENSE", "special_defense",
+            "SPEED", "speed");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A plain DELETE rather than TRUNCATE: on PostgreSQL TRUNCATE would lock readers out until commit,
+     * while a deleted row stays visible to them until then.
+     */
+    @Override
+    @Transactional
+    public void refreshLeaderboards() {
+        jdbcTemplate.update("DELETE FROM pokemon_leaderboard");
+        LEADERBOARD_COLUMNS.forEach((ranking, column) -> jdbcTemplate.update(
+                "INSERT INTO pokemon_leaderboard (ranking, rank, poke_api_id) "
+                        + "SELECT '" + ranking + "', ROW_NUMBER() OVER (ORDER BY " + column + " DESC NULLS LAST, poke_api_id DESC), "
+                        + "poke_api_id FROM pokemons WHERE poke_api_id IS NOT NULL"));
+    }
+}
@@ -1,25 +1,76 @@
 package com.sergisalas.pokemonapi.persistence;
 
 import com.sergisalas.pokemonapi.domain.Pokemon;
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PokemonRepository extends JpaRepository<Pokemon, Long> {
+public interface PokemonRepository extends JpaRepository<Pokemon, Long>, PokemonUpsertRepository, PokemonTopRepository,
+        PokemonLeaderboardRepository {
+
+    /**
+     * JPQL constructor expression mapping {@code Pokemon p} to a {@link PokemonDto}.
+     */
+    String POKEMON_DTO = "new com.sergisalas.pokemonapi.service.dto.PokemonDto(p.pokeApiId, p.name, p.weight, p.height, "
+            + "p.baseExperience, p.hp, p.attack, p.defense, p.specialAttack, p.specialDefense, p.speed)";
+
+    @Transactional(readOnly = true)
     Optional<Pokemon> findByPokeApiId(Integer pokeapiId);
 
-    @Query("SELECT p FROM Pokemon p ORDER BY p.weight DESC")
-    List<Pokemon> findTopPokemonByWeight(Pageable pageable);
+    /**
+     * Top {@code numPokemon} of a ranking, read from the leaderboard the last sync precomputed.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT " + POKEMON_DTO + " FROM PokemonLeaderboardEntry l JOIN Pokemon p ON p.pokeApiId = l.pokeApiId "
+            + "WHERE l.ranking = :ranking AND l.rank <= :numPokemon ORDER BY l.rank")
+    List<PokemonDto> findLeaderboard(@Param("ranking") String ranking, @Param("numPokemon") int numPokemon);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT " + POKEMON_DTO + " FROM Pokemon p")
+    List<PokemonDto> findAllRankingRows();
+
+    @Transactional(readOnly = true)
+    @Query("SELECT " + POKEMON_DTO + " FROM Pokemon p WHERE p.pokeApiId IN :pokeApiIds OR p.name IN :names ORDER BY p.pokeApiId")
+    List<PokemonDto> findBatch(@Param("pokeApiIds") Collection<Integer> pokeApiIds, @Param("names") Collection<String> names);
+
+    // Selects rawJson explicitly so it is read in the same query instead of lazily, one row at a time
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.sergisalas.pokemonapi.service.dto.PokemonDetailDto(p.pokeApiId, p.name, p.weight, p.height, "
+            + "p.baseExperience, p.hp, p.attack, p.defense, p.specialAttack, p.specialDefense, p.speed, p.rawJson) FROM Pokemon p WHERE p.pokeApiId IN :pokeApiIds OR p.name IN :names ORDER BY p.pokeApiId")
+    List<PokemonDto> findBatchWithRawJson(@Param("pokeApiIds") Collection<Integer> pokeApiIds, @Param("names") Collection<String> names);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + POKEMON_DTO + " FROM Pokemon p")
+    Stream<PokemonDto> streamRankingRows(Sort sort);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT MAX(p.lastSynced) FROM Pokemon p")
+    Instant findLatestSyncTime();
 
-    @Query("SELECT p FROM Pokemon p ORDER BY p.height DESC")
-    List<Pokemon> findTopPokemonByHeight(Pageable pageable);
+    // Read by the sync, so it comes from the write pool: a lagging replica could miss what the last sync wrote
+    @Transactional
+    @Query("SELECT p.id AS id, p.pokeApiId AS pokeApiId, p.contentHash AS contentHash, p.etag AS etag FROM Pokemon p")
+    List<PokemonSyncState> findAllSyncStates();
 
-    @Query("SELECT p FROM Pokemon p ORDER BY p.baseExperience DESC")
-    List<Pokemon> findTopPokemonByBaseExperience(Pageable pageable);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Pokemon p SET p.lastSynced = :lastSynced WHERE p.pokeApiId IN :pokeApiIds")
+    int touchLastSynced(@Param("pokeApiIds") Collection<Integer> pokeApiIds, @Param("lastSynced") Instant lastSynced);
 
 }
\ No newline at end of file
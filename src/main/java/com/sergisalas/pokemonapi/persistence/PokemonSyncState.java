@@ -0,0 +1,15 @@
+package com.sergisalas.pokemonapi.persistence;
+
+/**
+ * Lightweight view of the sync metadata stored for a Pokemon, used to decide whether a detail
+ * document changed upstream without loading the whole entity.
+ */
+public interface PokemonSyncState {
+    String getId();
+
+    Integer getPokeApiId();
+
+    String getContentHash();
+
+    String getEtag();
+}
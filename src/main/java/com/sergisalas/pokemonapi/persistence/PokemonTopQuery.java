@@ -0,0 +1,22 @@
+package com.sergisalas.pokemonapi.persistence;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * One page of a keyset-paginated ranking: Pokemon with a non-null {@code stat}, optionally bounded by
+ * {@code min}/{@code max} and restricted to one {@code type}, ordered by the stat and then by
+ * {@code pokeApiId}, starting right after the ({@code afterValue}, {@code afterPokeApiId}) position of
+ * the previous page.
+ *
+ * @param stat entity attribute to rank by, e.g. {@code weight}
+ * @param type PokeAPI type name such as {@code fire}, or null for every type
+ */
+public record PokemonTopQuery(String stat,
+                              Sort.Direction direction,
+                              int limit,
+                              Integer min,
+                              Integer max,
+                              String type,
+                              Integer afterValue,
+                              Integer afterPokeApiId) {
+}
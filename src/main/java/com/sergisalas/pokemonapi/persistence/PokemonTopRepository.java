@@ -0,0 +1,15 @@
+package com.sergisalas.pokemonapi.persistence;
+
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+
+import java.util.List;
+
+/**
+ * Generic ranking query. Pages are fetched with a seek predicate on ({@code stat}, {@code pokeApiId})
+ * instead of an OFFSET, so every page is a range scan of the matching composite index and a deep page
+ * costs the same as the first one.
+ */
+public interface PokemonTopRepository {
+
+    List<PokemonDto> findTop(PokemonTopQuery query);
+}
@@ -0,0 +1,74 @@
+package com.sergisalas.pokemonapi.persistence;
+
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+public class PokemonTopRepositoryImpl implements PokemonTopRepository {
+
+    // Only attributes backed by a (stat DESC, poke_api_id DESC) index; also keeps the JPQL below injection-safe
+    private static final Set<String> RANKABLE_STATS = Set.of("weight", "height", "baseExperience",
+            "hp", "attack", "defense", "specialAttack", "specialDefense", "speed");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PokemonDto> findTop(PokemonTopQuery query) {
+        if (!RANKABLE_STATS.contains(query.stat())) {
+            throw new IllegalArgumentException("Unsupported ranking stat: " + query.stat());
+        }
+        String stat = "p." + query.stat();
+        String direction = query.direction().isDescending() ? "DESC" : "ASC";
+
+        StringBuilder jpql = new StringBuilder()
+                .append("SELECT ").append(PokemonRepository.POKEMON_DTO).append(" FROM Pokemon p");
+        if (query.type() != null) {
+            // A Pokemon never has the same type twice, so the join cannot duplicate rows
+            jpql.append(" JOIN p.types t");
+        }
+        jpql.append(" WHERE ").append(stat).append(" IS NOT NULL AND p.pokeApiId IS NOT NULL");
+        if (query.type() != null) {
+            jpql.append(" AND t.name = :type");
+        }
+        if (query.min() != null) {
+            jpql.append(" AND ").append(stat).append(" >= :min");
+        }
+        if (query.max() != null) {
+            jpql.append(" AND ").append(stat).append(" <= :max");
+        }
+        if (query.afterValue() != null) {
+            // Row-value comparison, so the database can seek straight to the cursor position in the index
+            jpql.append(" AND (").append(stat).append(", p.pokeApiId) ")
+                    .append(query.direction().isDescending() ? "<" : ">")
+                    .append(" (:afterValue, :afterPokeApiId)");
+        }
+        // Default null ordering on purpose: on PostgreSQL it matches the (stat DESC, poke_api_id DESC) indexes,
+        // read forwards for DESC and backwards for ASC
+        jpql.append(" ORDER BY ").append(stat).append(' ').append(direction)
+                .append(", p.pokeApiId ").append(direction);
+
+        TypedQuery<PokemonDto> typedQuery = entityManager.createQuery(jpql.toString(), PokemonDto.class)
+                .setMaxResults(query.limit());
+        if (query.type() != null) {
+            typedQuery.setParameter("type", query.type());
+        }
+        if (query.min() != null) {
+            typedQuery.setParameter("min", query.min());
+        }
+        if (query.max() != null) {
+            typedQuery.setParameter("max", query.max());
+        }
+        if (query.afterValue() != null) {
+            typedQuery.setParameter("afterValue", query.afterValue());
+            typedQuery.setParameter("afterPokeApiId", query.afterPokeApiId());
+        }
+        return typedQuery.getResultList();
+    }
+}
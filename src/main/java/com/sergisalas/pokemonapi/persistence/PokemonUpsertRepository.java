@@ -0,0 +1,14 @@
+package com.sergisalas.pokemonapi.persistence;
+
+import com.sergisalas.pokemonapi.domain.Pokemon;
+
+import java.util.Collection;
+
+/**
+ * Bulk write path for the sync. Rows are keyed on {@code pokeApiId}, so running the same sync twice
+ * updates the existing rows instead of inserting a duplicate set.
+ */
+public interface PokemonUpsertRepository {
+
+    void upsertAll(Collection<Pokemon> pokemons);
+}
@@ -0,0 +1,127 @@
+package com.sergisalas.pokemonapi.persistence;
+
+import com.sergisalas.pokemonapi.domain.GzipJsonConverter;
+import com.sergisalas.pokemonapi.domain.Pokemon;
+import com.sergisalas.pokemonapi.domain.PokemonAbilitySlot;
+import com.sergisalas.pokemonapi.domain.PokemonTypeSlot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class PokemonUpsertRepositoryImpl implements PokemonUpsertRepository {
+
+    private static final String COLUMNS =
+            "id, poke_api_id, name, weight, height, base_experience, hp, attack, defense, special_attack, "
+                    + "special_defense, speed, raw_json, content_hash, etag, last_synced";
+
+    private static final String PLACEHOLDERS = "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?";
+
+    private static final String H2_UPSERT =
+            "MERGE INTO pokemons (" + COLUMNS + ") KEY (poke_api_id) VALUES (" + PLACEHOLDERS + ")";
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO pokemons (" + COLUMNS + ") VALUES (" + PLACEHOLDERS + ") "
+                    + "ON CONFLICT (poke_api_id) DO UPDATE SET "
+                    + "name = EXCLUDED.name, weight = EXCLUDED.weight, height = EXCLUDED.height, "
+                    + "base_experience = EXCLUDED.base_experience, hp = EXCLUDED.hp, attack = EXCLUDED.attack, "
+                    + "defense = EXCLUDED.defense, special_attack = EXCLUDED.special_attack, "
+                    + "special_defense = EXCLUDED.special_defense, speed = EXCLUDED.speed, raw_json = EXCLUDED.raw_json, "
+                    + "content_hash = EXCLUDED.content_hash, etag = EXCLUDED.etag, last_synced = EXCLUDED.last_synced";
+
+    private static final String DELETE_TYPES = "DELETE FROM pokemon_types WHERE poke_api_id = ?";
+    private static final String INSERT_TYPE = "INSERT INTO pokemon_types (poke_api_id, slot, type_name) VALUES (?, ?, ?)";
+    private static final String DELETE_ABILITIES = "DELETE FROM pokemon_abilities WHERE poke_api_id = ?";
+    private static final String INSERT_ABILITY =
+            "INSERT INTO pokemon_abilities (poke_api_id, slot, ability_name, hidden) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile String upsertSql;
+
+    @Override
+    @Transactional
+    public void upsertAll(Collection<Pokemon> pokemons) {
+        if (pokemons.isEmpty()) {
+            return;
+        }
+        List<Pokemon> rows = List.copyOf(pokemons);
+        jdbcTemplate.batchUpdate(upsertSql(), rows, rows.size(), this::bind);
+
+        // Types and abilities are replaced wholesale, each table with one delete batch and one insert batch
+        List<Pokemon> keyed = rows.stream().filter(pokemon -> pokemon.getPokeApiId() != null).toList();
+        List<Map.Entry<Integer, PokemonTypeSlot>> types = new ArrayList<>();
+        List<Map.Entry<Integer, PokemonAbilitySlot>> abilities = new ArrayList<>();
+        for (Pokemon pokemon : keyed) {
+            pokemon.getTypes().forEach(type -> types.add(Map.entry(pokemon.getPokeApiId(), type)));
+            pokemon.getAbilities().forEach(ability -> abilities.add(Map.entry(pokemon.getPokeApiId(), ability)));
+        }
+
+        if (keyed.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_TYPES, keyed, keyed.size(),
+                (ps, pokemon) -> ps.setInt(1, pokemon.getPokeApiId()));
+        jdbcTemplate.batchUpdate(DELETE_ABILITIES, keyed, keyed.size(),
+                (ps, pokemon) -> ps.setInt(1, pokemon.getPokeApiId()));
+        if (!types.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TYPE, types, types.size(), (ps, type) -> {
+                ps.setInt(1, type.getKey());
+                ps.setInt(2, type.getValue().getSlot());
+                ps.setString(3, type.getValue().getName());
+            });
+        }
+        if (!abilities.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ABILITY, abilities, abilities.size(), (ps, ability) -> {
+                ps.setInt(1, ability.getKey());
+                ps.setInt(2, ability.getValue().getSlot());
+                ps.setString(3, ability.getValue().getName());
+                ps.setBoolean(4, ability.getValue().isHidden());
+            });
+        }
+    }
+
+    private void bind(PreparedStatement ps, Pokemon pokemon) throws SQLException {
+        ps.setString(1, pokemon.getId());
+        ps.setObject(2, pokemon.getPokeApiId(), Types.INTEGER);
+        ps.setString(3, pokemon.getName());
+        ps.setObject(4, pokemon.getWeight(), Types.INTEGER);
+        ps.setObject(5, pokemon.getHeight(), Types.INTEGER);
+        ps.setObject(6, pokemon.getBaseExperience(), Types.INTEGER);
+        ps.setObject(7, pokemon.getHp(), Types.INTEGER);
+        ps.setObject(8, pokemon.getAttack(), Types.INTEGER);
+        ps.setObject(9, pokemon.getDefense(), Types.INTEGER);
+        ps.setObject(10, pokemon.getSpecialAttack(), Types.INTEGER);
+        ps.setObject(11, pokemon.getSpecialDefense(), Types.INTEGER);
+        ps.setObject(12, pokemon.getSpeed(), Types.INTEGER);
+        // Compress the received bytes when there are any, without a round trip through a String
+        ps.setBytes(13, pokemon.getRawJsonBytes() != null
+                ? GzipJsonConverter.gzip(pokemon.getRawJsonBytes())
+                : GzipJsonConverter.gzip(pokemon.getRawJson()));
+        ps.setString(14, pokemon.getContentHash());
+        ps.setString(15, pokemon.getEtag());
+        ps.setObject(16, pokemon.getLastSynced() == null
+                ? null
+                : OffsetDateTime.ofInstant(pokemon.getLastSynced(), ZoneOffset.UTC));
+    }
+
+    private String upsertSql() {
+        if (upsertSql == null) {
+            ConnectionCallback<String> productName = connection -> connection.getMetaData().getDatabaseProductName();
+            String product = jdbcTemplate.execute(productName);
+            upsertSql = "PostgreSQL".equalsIgnoreCase(product) ? POSTGRES_UPSERT : H2_UPSERT;
+        }
+        return upsertSql;
+    }
+}
@@ -0,0 +1,80 @@
+package com.sergisalas.pokemonapi.service;
+
+import com.sergisalas.pokemonapi.persistence.PokemonRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Identifies the data currently served by the read endpoints. It changes whenever a sync completes,
+ * which lets the web layer answer conditional requests from an ETag and a modification time. The
+ * version number is local to this instance and only keys the ranking cache; the ETag comes from the
+ * modification time, which is persisted with the data.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatasetVersion {
+
+    private final PokemonRepository pokemonRepository;
+
+    private final AtomicReference<Version> state = new AtomicReference<>(new Version(0, Instant.EPOCH));
+
+    /**
+     * Runs before the snapshot file is loaded, which may then {@link #seed} a later time.
+     */
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Instant lastSynced = pokemonRepository.findLatestSyncTime();
+        state.set(new Version(0, lastSynced == null ? Instant.EPOCH : lastSynced));
+    }
+
+    /**
+     * Sets the modification time of data that was not read from the database, e.g. the snapshot
+     * file served while the database is still empty.
+     */
+    public void seed(Instant lastModified) {
+        state.updateAndGet(current -> new Version(current.number(), lastModified));
+    }
+
+    /**
+     * Runs right after the ranking index has been rebuilt, so a request that sees the new version
+     * also reads the new index.
+     */
+    @Order(1)
+    @EventListener(PokemonSyncCompletedEvent.class)
+    public void onSyncCompleted(PokemonSyncCompletedEvent event) {
+        state.updateAndGet(current -> new Version(current.number() + 1, event.syncedAt()));
+    }
+
+    /**
+     * Changes with every completed sync; part of the ranking cache keys.
+     */
+    public long version() {
+        return state.get().number();
+    }
+
+    /**
+     * The current version, read once so its ETag and modification time always belong together.
+     */
+    public Version current() {
+        return state.get();
+    }
+
+    public record Version(long number, Instant lastModified) {
+
+        /**
+         * Strong entity tag for this version, already quoted as required by the ETag header. It only
+         * depends on the sync time of the data (the latest {@code lastSynced}, or the one stored in the
+         * snapshot file), so restarts and other instances serving the same data send the same tag.
+         */
+        public String etag() {
+            return "\"" + Long.toHexString(lastModified.toEpochMilli()) + "\"";
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.sergisalas.pokemonapi.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sergisalas.pokemonapi.service.dto.PokemonDetailResponse;
+import com.sergisalas.pokemonapi.service.dto.PokemonDetailResponse.NamedResource;
+import com.sergisalas.pokemonapi.service.dto.PokemonDetailResponse.PokemonAbility;
+import com.sergisalas.pokemonapi.service.dto.PokemonDetailResponse.PokemonStat;
+import com.sergisalas.pokemonapi.service.dto.PokemonDetailResponse.PokemonType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pulls the fields we store out of a PokeAPI detail document with the streaming {@link JsonParser}:
+ * a few top-level values plus the stats, types and abilities arrays. Everything else (moves, sprites,
+ * game indices...) is skipped token by token without being materialized, and parsing stops as soon as
+ * every field has been read.
+ */
+public final class PokemonDetailParser {
+
+    private static final int FIELD_COUNT = 8;
+
+    private PokemonDetailParser() {
+    }
+
+    public static PokemonDetailResponse parse(JsonFactory jsonFactory, byte[] json) throws IOException {
+        PokemonDetailResponse detail = new PokemonDetailResponse();
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object for the Pokemon detail document");
+            }
+
+            int found = 0;
+            while (found < FIELD_COUNT && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> detail.setId(intValue(parser, value));
+                    case "name" -> detail.setName(textValue(parser, value));
+                    case "height" -> detail.setHeight(intValue(parser, value));
+                    case "weight" -> detail.setWeight(intValue(parser, value));
+                    case "base_experience" -> detail.setBase_experience(intValue(parser, value));
+                    case "stats" -> detail.setStats(readArray(parser, value, PokemonDetailParser::readStat));
+                    case "types" -> detail.setTypes(readArray(parser, value, PokemonDetailParser::readType));
+                    case "abilities" -> detail.setAbilities(readArray(parser, value, PokemonDetailParser::readAbility));
+                    default -> {
+                        parser.skipChildren();
+                        continue;
+                    }
+                }
+                found++;
+            }
+        }
+        return detail;
+    }
+
+    private static PokemonStat readStat(JsonParser parser) throws IOException {
+        PokemonStat stat = new PokemonStat();
+        readObject(parser, (field, value) -> {
+            switch (field) {
+                case "base_stat" -> stat.setBase_stat(intValue(parser, value));
+                case "stat" -> stat.setStat(readNamedResource(parser, value));
+                default -> parser.skipChildren();
+            }
+        });
+        return stat;
+    }
+
+    private static PokemonType readType(JsonParser parser) throws IOException {
+        PokemonType type = new PokemonType();
+        readObject(parser, (field, value) -> {
+            switch (field) {
+                case "slot" -> type.setSlot(intValue(parser, value));
+                case "type" -> type.setType(readNamedResource(parser, value));
+                default -> parser.skipChildren();
+            }
+        });
+        return type;
+    }
+
+    private static PokemonAbility readAbility(JsonParser parser) throws IOException {
+        PokemonAbility ability = new PokemonAbility();
+        readObject(parser, (field, value) -> {
+            switch (field) {
+                case "slot" -> ability.setSlot(intValue(parser, value));
+                case "is_hidden" -> ability.setIs_hidden(value == JsonToken.VALUE_NULL ? null : parser.getValueAsBoolean());
+                case "ability" -> ability.setAbility(readNamedResource(parser, value));
+                default -> parser.skipChildren();
+            }
+        });
+        return ability;
+    }
+
+    private static NamedResource readNamedResource(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        NamedResource resource = new NamedResource();
+        readObject(parser, (field, fieldValue) -> {
+            switch (field) {
+                case "name" -> resource.setName(textValue(parser, fieldValue));
+                case "url" -> resource.setUrl(textValue(parser, fieldValue));
+                default -> parser.skipChildren();
+            }
+        });
+        return resource;
+    }
+
+    /**
+     * Reads an array of objects; anything that is not an object (including a null array) is skipped.
+     */
+    private static <T> List<T> readArray(JsonParser parser, JsonToken value, ElementReader<T> reader) throws IOException {
+        List<T> items = new ArrayList<>();
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return items;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                items.add(reader.read(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return items;
+    }
+
+    private static void readObject(JsonParser parser, FieldReader reader) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            reader.read(field, parser.nextToken());
+        }
+    }
+
+    private static Integer intValue(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : parser.getValueAsInt();
+    }
+
+    private static String textValue(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    @FunctionalInterface
+    private interface ElementReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface FieldReader {
+        void read(String field, JsonToken value) throws IOException;
+    }
+}
@@ -0,0 +1,56 @@
+package com.sergisalas.pokemonapi.service;
+
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Stats the top-N endpoints can rank Pokemon by.
+ */
+public enum PokemonRanking {
+    WEIGHT("weight", PokemonDto::getWeight),
+    HEIGHT("height", PokemonDto::getHeight),
+    BASE_EXPERIENCE("baseExperience", PokemonDto::getBaseExperience),
+    HP("hp", PokemonDto::getHp),
+    ATTACK("attack", PokemonDto::getAttack),
+    DEFENSE("defense", PokemonDto::getDefense),
+    SPECIAL_ATTACK("specialAttack", PokemonDto::getSpecialAttack),
+    SPECIAL_DEFENSE("specialDefense", PokemonDto::getSpecialDefense),
+    SPEED("speed", PokemonDto::getSpeed);
+
+    private final String attribute;
+    private final Function<PokemonDto, Integer> stat;
+
+    PokemonRanking(String attribute, Function<PokemonDto, Integer> stat) {
+        this.attribute = attribute;
+        this.stat = stat;
+    }
+
+    /**
+     * Name of the {@code Pokemon} entity attribute holding this stat.
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Integer statOf(PokemonDto pokemon) {
+        return stat.apply(pokemon);
+    }
+
+    /**
+     * Resolves a request parameter such as {@code weight}, {@code baseExperience}, {@code base_experience}
+     * or {@code special-attack}.
+     */
+    public static PokemonRanking fromParameter(String value) {
+        if (value != null) {
+            String normalized = value.replace("_", "").replace("-", "").toLowerCase(Locale.ROOT);
+            for (PokemonRanking ranking : values()) {
+                if (ranking.attribute.toLowerCase(Locale.ROOT).equals(normalized)) {
+                    return ranking;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown stat '" + value + "'");
+    }
+}
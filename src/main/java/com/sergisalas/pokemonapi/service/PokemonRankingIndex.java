@@ -0,0 +1,189 @@
+package com.sergisalas.pokemonapi.service;
+
+import com.sergisalas.pokemonapi.persistence.PokemonRepository;
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Read-optimized copy of the rankings, rebuilt after every sync. Each stat keeps an {@code int[]} of
+ * positions sorted by that stat, so a top-N query is a slice of an array; id and name lookups are
+ * hash map hits. A rebuild prepares a whole
+ * new snapshot and publishes it with a single volatile write, so readers never block or see a
+ * half-built ranking.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PokemonRankingIndex {
+
+    private static final Comparator<PokemonDto> BY_POKE_API_ID =
+            Comparator.comparing(PokemonDto::getPokeApiId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final PokemonRepository pokemonRepository;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Returns the top {@code limit} Pokemon for the given ranking, or empty while the index has not
+     * been built yet so callers can fall back to the database.
+     */
+    public Optional<List<PokemonDto>> top(PokemonRanking ranking, int limit) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int[] order = current.orders().get(ranking);
+        int size = Math.min(limit, order.length);
+        PokemonDto[] top = new PokemonDto[size];
+        for (int i = 0; i < size; i++) {
+            top[i] = current.pokemons()[order[i]];
+        }
+        return Optional.of(Arrays.asList(top));
+    }
+
+    /**
+     * Returns the Pokemon with any of the given ids or (lower-case) names, ordered by id, or empty while
+     * the index has not been built yet.
+     */
+    public Optional<List<PokemonDto>> find(Collection<Integer> pokeApiIds, Collection<String> names) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        Map<Integer, PokemonDto> found = new TreeMap<>();
+        for (Integer pokeApiId : pokeApiIds) {
+            PokemonDto pokemon = current.byPokeApiId().get(pokeApiId);
+            if (pokemon != null) {
+                found.put(pokemon.getPokeApiId(), pokemon);
+            }
+        }
+        for (String name : names) {
+            PokemonDto pokemon = current.byName().get(name);
+            if (pokemon != null && pokemon.getPokeApiId() != null) {
+                found.put(pokemon.getPokeApiId(), pokemon);
+            }
+        }
+        return Optional.of(List.copyOf(found.values()));
+    }
+
+    public boolean isBuilt() {
+        return snapshot != null;
+    }
+
+    /**
+     * Every indexed Pokemon, in no particular order; empty while the index has not been built yet.
+     */
+    public List<PokemonDto> all() {
+        Snapshot current = snapshot;
+        return current == null ? List.of() : List.of(current.pokemons());
+    }
+
+    /**
+     * Builds the index from the database on startup.
+     */
+    @Order(0)
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        load(pokemonRepository.findAllRankingRows());
+        if (snapshot != null) {
+            log.info("Ranking index rebuilt with {} Pokemon", snapshot.pokemons().length);
+        }
+    }
+
+    /**
+     * Deliberately not read-only: with a read replica configured, the rebuild that follows a sync must
+     * read from the primary the sync has just written to, not from a replica that may still lag behind.
+     * A partial sync never shrinks the index, e.g. one seeded from the snapshot file while the database
+     * was still empty.
+     */
+    @Order(0)
+    @Transactional
+    @EventListener
+    public void onSyncCompleted(PokemonSyncCompletedEvent event) {
+        List<PokemonDto> rows = pokemonRepository.findAllRankingRows();
+        Snapshot current = snapshot;
+        if (!event.complete() && current != null && rows.size() < current.pokemons().length) {
+            log.warn("Keeping the ranking index of {} Pokemon instead of the {} left by a partial sync",
+                    current.pokemons().length, rows.size());
+            return;
+        }
+        load(rows);
+        if (snapshot != null) {
+            log.info("Ranking index rebuilt with {} Pokemon", snapshot.pokemons().length);
+        }
+    }
+
+    /**
+     * Replaces the index with the given rows, e.g. read from a snapshot file instead of the database.
+     */
+    public void load(List<PokemonDto> rows) {
+        PokemonDto[] pokemons = rows.toArray(PokemonDto[]::new);
+        if (pokemons.length == 0) {
+            snapshot = null;
+            return;
+        }
+        // Positions in pokeApiId order, so equal stats come out highest pokeApiId first like in the SQL rankings
+        Arrays.sort(pokemons, BY_POKE_API_ID);
+
+        Map<PokemonRanking, int[]> orders = new EnumMap<>(PokemonRanking.class);
+        for (PokemonRanking ranking : PokemonRanking.values()) {
+            orders.put(ranking, sortDescending(pokemons, ranking));
+        }
+        Map<Integer, PokemonDto> byPokeApiId = new HashMap<>(pokemons.length * 2);
+        Map<String, PokemonDto> byName = new HashMap<>(pokemons.length * 2);
+        for (PokemonDto pokemon : pokemons) {
+            if (pokemon.getPokeApiId() != null) {
+                byPokeApiId.putIfAbsent(pokemon.getPokeApiId(), pokemon);
+            }
+            if (pokemon.getName() != null) {
+                byName.putIfAbsent(pokemon.getName().toLowerCase(Locale.ROOT), pokemon);
+            }
+        }
+        snapshot = new Snapshot(pokemons, orders, byPokeApiId, byName);
+    }
+
+    /**
+     * Sorts positions by stat without boxing: each entry packs the stat in the high 32 bits and the
+     * position in the low 32 bits, so sorting the longs sorts by stat, then by position. Positions follow
+     * pokeApiId, so ties are ordered by pokeApiId descending once reversed. Missing stats sort last.
+     */
+    private static int[] sortDescending(PokemonDto[] pokemons, PokemonRanking ranking) {
+        long[] keys = new long[pokemons.length];
+        for (int i = 0; i < pokemons.length; i++) {
+            Integer stat = ranking.statOf(pokemons[i]);
+            long value = stat == null ? -1L : stat;
+            keys[i] = (value << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[keys.length - 1 - i];
+        }
+        return order;
+    }
+
+    private record Snapshot(PokemonDto[] pokemons,
+                            Map<PokemonRanking, int[]> orders,
+                            Map<Integer, PokemonDto> byPokeApiId,
+                            Map<String, PokemonDto> byName) {
+    }
+}
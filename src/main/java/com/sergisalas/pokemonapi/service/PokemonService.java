@@ -1,61 +1,285 @@
 package com.sergisalas.pokemonapi.service;
 
-import com.sergisalas.pokemonapi.domain.Pokemon;
+import com.sergisalas.pokemonapi.config.CacheConfig;
 import com.sergisalas.pokemonapi.persistence.PokemonRepository;
+import com.sergisalas.pokemonapi.persistence.PokemonTopQuery;
+import com.sergisalas.pokemonapi.service.dto.PokemonBatchDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonBatchRequest;
 import com.sergisalas.pokemonapi.service.dto.PokemonDto;
-import lombok.AllArgsConstructor;
+import com.sergisalas.pokemonapi.service.dto.PokemonPageDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class PokemonService {
 
+    @Value("${pokeapi.query.max-results:100}")
+    private int maxResults;
+
+    @Value("${pokeapi.query.batch-max-size:100}")
+    private int batchMaxSize;
+
     private final PokemonRepository pokemonRepository;
-    private final PokemonSyncService pokemonSyncService;
+    private final SyncJobService syncJobService;
+    private final PokemonRankingIndex pokemonRankingIndex;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
 
+    @Cacheable(cacheNames = CacheConfig.POKEMON_RANKINGS, key = "'WEIGHT:' + @datasetVersion.version() + ':' + #numPokemon")
     public List<PokemonDto> getHeaviestPokemon(int numPokemon) {
         try {
-            List<Pokemon> response = this.pokemonRepository.findTopPokemonByWeight(PageRequest.of(0,numPokemon));
-            return response.stream()
-                    .map(PokemonDto::new)
-                    .collect(Collectors.toList());
+            checkMaxResults(numPokemon);
+            return top(PokemonRanking.WEIGHT, numPokemon);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    @Cacheable(cacheNames = CacheConfig.POKEMON_RANKINGS, key = "'HEIGHT:' + @datasetVersion.version() + ':' + #numPokemon")
     public List<PokemonDto> getHighestPokemon(int numPokemon) {
         try {
-            List<Pokemon> response = this.pokemonRepository.findTopPokemonByHeight(PageRequest.of(0,numPokemon));
-            return response.stream()
-                    .map(PokemonDto::new)
-                    .collect(Collectors.toList());
+            checkMaxResults(numPokemon);
+            return top(PokemonRanking.HEIGHT, numPokemon);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    @Cacheable(cacheNames = CacheConfig.POKEMON_RANKINGS, key = "'BASE_EXPERIENCE:' + @datasetVersion.version() + ':' + #numPokemon")
     public List<PokemonDto> getHighestExperiencesPokemon(int numPokemon) {
         try {
-            List<Pokemon> response = this.pokemonRepository.findTopPokemonByBaseExperience(PageRequest.of(0,numPokemon));
-            return response.stream()
-                    .map(PokemonDto::new)
-                    .collect(Collectors.toList());
+            checkMaxResults(numPokemon);
+            return top(PokemonRanking.BASE_EXPERIENCE, numPokemon);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    public void syncDataBase (){
+    /**
+     * Validates a top-N request without running it, so a conditional request can be answered with 304
+     * before any query while an invalid one still gets its 400.
+     */
+    public void checkRankingRequest(int numPokemon) {
         try {
-            this.pokemonSyncService.syncAllPokemons();
+            checkMaxResults(numPokemon);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Validates a {@link #getTopPokemon} request (limit, stat, order and cursor) without running it.
+     */
+    public void checkTopRequest(String stat, String order, int limit, String after) {
+        try {
+            checkMaxResults(limit);
+            PokemonRanking ranking = PokemonRanking.fromParameter(stat);
+            Sort.Direction.fromString(order);
+            if (after != null && !after.isBlank()) {
+                RankingCursor.decode(after, ranking);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Generic ranking by any supported stat, paginated with a keyset cursor: {@code after} is the
+     * {@code next} value of the previous page. Pokemon without a value for the stat are left out.
+     * Every page, the first one included, comes from the same live query: the precomputed leaderboard
+     * only changes when a sync finishes, so mixing it with live cursors could skip or repeat Pokemon.
+     */
+    @Transactional(readOnly = true)
+    public PokemonPageDto getTopPokemon(String stat, String order, int limit, String after, Integer min, Integer max,
+                                        String type) {
+        try {
+            checkMaxResults(limit);
+            PokemonRanking ranking = PokemonRanking.fromParameter(stat);
+            Sort.Direction direction = Sort.Direction.fromString(order);
+            RankingCursor cursor = after == null || after.isBlank() ? null : RankingCursor.decode(after, ranking);
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            // One extra row tells whether there is a next page without a separate count query
+            List<PokemonDto> rows = this.pokemonRepository.findTop(new PokemonTopQuery(
+                    ranking.getAttribute(), direction, limit + 1, min, max,
+                    type == null || type.isBlank() ? null : type.trim().toLowerCase(Locale.ROOT),
+                    cursor == null ? null : cursor.value(),
+                    cursor == null ? null : cursor.pokeApiId()));
+            sample.stop(meterRegistry.timer("pokemon.top.query", "ranking", ranking.name()));
+
+            if (rows.size() <= limit) {
+                return new PokemonPageDto(rows, null);
+            }
+            List<PokemonDto> page = rows.subList(0, limit);
+            PokemonDto last = page.get(limit - 1);
+            String next = new RankingCursor(ranking, ranking.statOf(last), last.getPokeApiId()).encode();
+            return new PokemonPageDto(List.copyOf(page), next);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Looks up many Pokemon by id and/or name, from the in-memory index when it is built and otherwise
+     * with a single {@code IN} query. Duplicates are ignored and the ids and names that matched nothing
+     * are reported back. The stored PokeAPI document is only in the database, so {@code includeRawJson}
+     * always queries it.
+     */
+    public PokemonBatchDto getBatch(PokemonBatchRequest request) {
+        try {
+            Set<Integer> ids = new LinkedHashSet<>();
+            if (request.getIds() != null) {
+                request.getIds().stream().filter(id -> id != null).forEach(ids::add);
+            }
+            Set<String> names = new LinkedHashSet<>();
+            if (request.getNames() != null) {
+                request.getNames().stream()
+                        .filter(name -> name != null && !name.isBlank())
+                        .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                        .forEach(names::add);
+            }
+            if (ids.isEmpty() && names.isEmpty()) {
+                throw new IllegalArgumentException("At least one id or name is required");
+            }
+            if (ids.size() + names.size() > batchMaxSize) {
+                throw new IllegalArgumentException("At most " + batchMaxSize + " ids and names can be requested at once");
+            }
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String source = "database";
+            List<PokemonDto> items;
+            if (request.isIncludeRawJson()) {
+                items = this.pokemonRepository.findBatchWithRawJson(ids, names);
+            } else {
+                Optional<List<PokemonDto>> indexed = this.pokemonRankingIndex.find(ids, names);
+                source = indexed.isPresent() ? "index" : source;
+                items = indexed.orElseGet(() -> this.pokemonRepository.findBatch(ids, names));
+            }
+            sample.stop(meterRegistry.timer("pokemon.batch.query", "source", source,
+                    "rawJson", String.valueOf(request.isIncludeRawJson())));
+
+            Set<Integer> foundIds = new HashSet<>();
+            Set<String> foundNames = new HashSet<>();
+            for (PokemonDto item : items) {
+                foundIds.add(item.getPokeApiId());
+                if (item.getName() != null) {
+                    foundNames.add(item.getName().toLowerCase(Locale.ROOT));
+                }
+            }
+            return new PokemonBatchDto(items,
+                    ids.stream().filter(id -> !foundIds.contains(id)).toList(),
+                    names.stream().filter(name -> !foundNames.contains(name)).toList());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Validates an export request up front, so a bad parameter is still answered with a 400 before
+     * any row has been streamed. The rows themselves are written by {@link #writeExport}.
+     */
+    public RankingExport exportRanking(String stat, String order, Integer limit) {
+        try {
+            if (limit != null && limit < 1) {
+                throw new IllegalArgumentException("limit must be higher than 0");
+            }
+            return new RankingExport(PokemonRanking.fromParameter(stat), Sort.Direction.fromString(order), limit);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes a ranking as newline-delimited JSON, one Pokemon per line. Rows are read through a
+     * database cursor and written one at a time, so memory use does not depend on how many are
+     * exported. Pokemon without a value for the stat come last.
+     */
+    @Transactional(readOnly = true)
+    public void writeExport(RankingExport export, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(PokemonDto.class);
+        Sort sort = Sort.by(
+                new Sort.Order(export.direction(), export.ranking().getAttribute()).nullsLast(),
+                new Sort.Order(export.direction(), "pokeApiId"));
+
+        try (Stream<PokemonDto> rows = this.pokemonRepository.streamRankingRows(sort)) {
+            Iterator<PokemonDto> iterator = (export.limit() == null ? rows : rows.limit(export.limit())).iterator();
+            while (iterator.hasNext()) {
+                out.write(writer.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    private void checkMaxResults(int numPokemon) {
+        if (numPokemon > maxResults) {
+            throw new IllegalArgumentException("At most " + maxResults
+                    + " Pokemon can be requested at once; use /pokemon/export to stream a full ranking");
+        }
+    }
+
+    /**
+     * Serves a ranking from the in-memory index, falling back to the leaderboard precomputed by the
+     * last sync on a cold start, while the index is still empty. Only cache misses reach this method; cache hits show up in
+     * the cache metrics instead.
+     */
+    private List<PokemonDto> top(PokemonRanking ranking, int numPokemon) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Optional<List<PokemonDto>> indexed = this.pokemonRankingIndex.top(ranking, numPokemon);
+        List<PokemonDto> result = indexed.orElseGet(() -> this.pokemonRepository.findLeaderboard(ranking.name(), numPokemon));
+        sample.stop(Timer.builder("pokemon.rankings.query")
+                .description("Time to compute a top-N ranking on a cache miss")
+                .tag("ranking", ranking.name())
+                .tag("source", indexed.isPresent() ? "index" : "database")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        return result;
+    }
+
+    /**
+     * Frees the rankings cached for the previous dataset version. Keys carry the version, which
+     * changes only after the index has been rebuilt, so a miss that read the old index and is stored
+     * after this eviction is never served: it sits under a key no request asks for any more.
+     */
+    @Order(2)
+    @EventListener(PokemonSyncCompletedEvent.class)
+    @CacheEvict(cacheNames = CacheConfig.POKEMON_RANKINGS, allEntries = true)
+    public void evictRankings() {
+    }
+
+    public SyncJob syncDataBase (){
+        try {
+            return this.syncJobService.startOrJoin();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Optional<SyncJob> getSyncJob(String id) {
+        return this.syncJobService.findJob(id);
+    }
 }
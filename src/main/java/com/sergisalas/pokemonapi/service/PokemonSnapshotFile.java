@@ -0,0 +1,215 @@
+package com.sergisalas.pokemonapi.service;
+
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps a compact copy of the ranking index on disk so a restart can serve the top-N and lookup
+ * endpoints straight away instead of waiting for a sync to refill the (in-memory) database.
+ *
+ * <p>The file is written after every successful sync. On startup, if the database is still empty, it
+ * is memory-mapped, decoded into the index and a sync is started in the background to load the
+ * database; once that finishes the index is rebuilt from the database as usual.
+ *
+ * <p>Layout, big-endian: a header ({@code int} magic, {@code int} format version, {@code long} write
+ * time in epoch millis, {@code int} record count, {@code int} name table size), then one fixed-width
+ * record per Pokemon ({@code pokeApiId}, the nine stats, name offset and name length, all {@code int},
+ * with {@link #NULL} for missing values), then the UTF-8 names back to back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PokemonSnapshotFile {
+
+    static final int MAGIC = 0x504B534E; // "PKSN"
+    static final int FORMAT_VERSION = 1;
+    static final int NULL = Integer.MIN_VALUE;
+
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4;
+    private static final int RECORD_BYTES = 12 * 4;
+
+    @Value("${pokeapi.snapshot.path:}")
+    private String path;
+
+    @Value("${pokeapi.snapshot.sync-on-startup:true}")
+    private boolean syncOnStartup;
+
+    private final PokemonRankingIndex pokemonRankingIndex;
+    private final SyncJobService syncJobService;
+    private final DatasetVersion datasetVersion;
+
+    /**
+     * Runs after the index has been built from the database, and only seeds it when that found nothing.
+     */
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (path.isBlank() || pokemonRankingIndex.isBuilt() || !Files.isRegularFile(Path.of(path))) {
+            return;
+        }
+        try {
+            Snapshot snapshot = read(Path.of(path));
+            pokemonRankingIndex.load(snapshot.pokemons());
+            datasetVersion.seed(snapshot.writtenAt());
+            log.info("Serving {} Pokemon from snapshot {} written at {}",
+                    snapshot.pokemons().size(), path, snapshot.writtenAt());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable snapshot {}: {}", path, e.getMessage());
+            return;
+        }
+        if (syncOnStartup) {
+            syncJobService.startOrJoin();
+        }
+    }
+
+    /**
+     * Runs after the index has been rebuilt, so the file always matches what the endpoints serve. It is
+     * stamped with the sync time, which a restart serves as the data's modification time. A partial
+     * sync leaves the previous snapshot in place.
+     */
+    @Order(3)
+    @EventListener
+    public void writeAfterSync(PokemonSyncCompletedEvent event) {
+        List<PokemonDto> pokemons = pokemonRankingIndex.all();
+        if (path.isBlank() || pokemons.isEmpty()) {
+            return;
+        }
+        if (!event.complete()) {
+            log.info("Keeping snapshot {} after a partial sync", path);
+            return;
+        }
+        try {
+            write(Path.of(path), pokemons, event.syncedAt());
+            log.info("Wrote snapshot of {} Pokemon to {}", pokemons.size(), path);
+        } catch (IOException e) {
+            log.warn("Failed to write snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes to a sibling temporary file first and moves it into place, so a reader never sees a
+     * partially written snapshot.
+     */
+    static void write(Path file, List<PokemonDto> pokemons, Instant writtenAt) throws IOException {
+        List<byte[]> names = new ArrayList<>(pokemons.size());
+        int nameBytes = 0;
+        for (PokemonDto pokemon : pokemons) {
+            byte[] name = pokemon.getName() == null ? null : pokemon.getName().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            nameBytes += name == null ? 0 : name.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + pokemons.size() * RECORD_BYTES + nameBytes);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(writtenAt.toEpochMilli())
+                .putInt(pokemons.size()).putInt(nameBytes);
+        int nameOffset = 0;
+        for (int i = 0; i < pokemons.size(); i++) {
+            PokemonDto pokemon = pokemons.get(i);
+            byte[] name = names.get(i);
+            buffer.putInt(orNull(pokemon.getPokeApiId()))
+                    .putInt(orNull(pokemon.getWeight()))
+                    .putInt(orNull(pokemon.getHeight()))
+                    .putInt(orNull(pokemon.getBaseExperience()))
+                    .putInt(orNull(pokemon.getHp()))
+                    .putInt(orNull(pokemon.getAttack()))
+                    .putInt(orNull(pokemon.getDefense()))
+                    .putInt(orNull(pokemon.getSpecialAttack()))
+                    .putInt(orNull(pokemon.getSpecialDefense()))
+                    .putInt(orNull(pokemon.getSpeed()))
+                    .putInt(name == null ? NULL : nameOffset)
+                    .putInt(name == null ? 0 : name.length);
+            nameOffset += name == null ? 0 : name.length;
+        }
+        for (byte[] name : names) {
+            if (name != null) {
+                buffer.put(name);
+            }
+        }
+        buffer.flip();
+
+        Path target = file.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Snapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a Pokemon snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format version " + version);
+            }
+            Instant writtenAt = Instant.ofEpochMilli(buffer.getLong());
+            int count = buffer.getInt();
+            int nameBytes = buffer.getInt();
+            int namesStart = HEADER_BYTES + count * RECORD_BYTES;
+            if (count < 0 || nameBytes < 0 || buffer.capacity() != namesStart + nameBytes) {
+                throw new IOException("Truncated or corrupt snapshot");
+            }
+
+            List<PokemonDto> pokemons = new ArrayList<>(count);
+            byte[] name = new byte[64];
+            for (int i = 0; i < count; i++) {
+                int record = HEADER_BYTES + i * RECORD_BYTES;
+                int nameOffset = buffer.getInt(record + 40);
+                int nameLength = buffer.getInt(record + 44);
+                String decodedName = null;
+                if (nameOffset != NULL) {
+                    if (name.length < nameLength) {
+                        name = new byte[nameLength];
+                    }
+                    buffer.get(namesStart + nameOffset, name, 0, nameLength);
+                    decodedName = new String(name, 0, nameLength, StandardCharsets.UTF_8);
+                }
+                pokemons.add(new PokemonDto(
+                        valueAt(buffer, record), decodedName,
+                        valueAt(buffer, record + 4), valueAt(buffer, record + 8), valueAt(buffer, record + 12),
+                        valueAt(buffer, record + 16), valueAt(buffer, record + 20), valueAt(buffer, record + 24),
+                        valueAt(buffer, record + 28), valueAt(buffer, record + 32), valueAt(buffer, record + 36)));
+            }
+            return new Snapshot(writtenAt, pokemons);
+        }
+    }
+
+    private static int orNull(Integer value) {
+        return value == null ? NULL : value;
+    }
+
+    private static Integer valueAt(ByteBuffer buffer, int position) {
+        int value = buffer.getInt(position);
+        return value == NULL ? null : value;
+    }
+
+    record Snapshot(Instant writtenAt, List<PokemonDto> pokemons) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.sergisalas.pokemonapi.service;
+
+import java.time.Instant;
+
+/**
+ * Published once a sync has finished writing, so read-side views can refresh themselves. Also published
+ * when a sync fails after some chunks were already written, since those rows are in the database too;
+ * {@code complete} is then false, and listeners should not let that partial data replace a complete
+ * copy they hold. {@code changed} and {@code unchanged} count the rows actually upserted and touched.
+ */
+public record PokemonSyncCompletedEvent(Instant syncedAt, int changed, int unchanged, boolean complete) {
+}
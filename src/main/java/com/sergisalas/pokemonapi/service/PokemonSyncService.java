@@ -1,76 +1,387 @@
 package com.sergisalas.pokemonapi.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sergisalas.pokemonapi.config.CircuitBreakerOpenException;
 import com.sergisalas.pokemonapi.domain.Pokemon;
+import com.sergisalas.pokemonapi.domain.PokemonAbilitySlot;
+import com.sergisalas.pokemonapi.domain.PokemonTypeSlot;
 import com.sergisalas.pokemonapi.persistence.PokemonRepository;
+import com.sergisalas.pokemonapi.persistence.PokemonSyncState;
 import com.sergisalas.pokemonapi.service.dto.PokemonDetailResponse;
 import com.sergisalas.pokemonapi.service.dto.PokemonListResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PokemonSyncService {
 
-    private static final int LIMIT = 1500;
-
     @Value("${pokeapi.base-url:https://pokeapi.co/api/v2}")
     private String POKEAPI_BASE_URL;
 
+    @Value("${pokeapi.sync.page-size:200}")
+    private int pageSize;
+
+    @Value("${pokeapi.sync.parallelism:16}")
+    private int parallelism;
+
+    @Value("${pokeapi.sync.batch-size:100}")
+    private int batchSize;
+
+    @Value("${pokeapi.sync.incremental:true}")
+    private boolean incremental;
+
     private final RestClient restClient;
     private final PokemonRepository pokemonRepository;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
-    @Scheduled(cron = "0 0 */12 * * *")
     public void syncAllPokemons(){
-        String listUrl = POKEAPI_BASE_URL + "/pokemon?limit=" + LIMIT;
-        PokemonListResponse listResponse = restClient.get()
-                .uri(listUrl)
+        syncAllPokemons(SyncProgress.NONE);
+    }
+
+    public void syncAllPokemons(SyncProgress progress){
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            runSync(progress);
+            outcome = "success";
+        } finally {
+            sample.stop(meterRegistry.timer("pokeapi.sync.duration", "outcome", outcome));
+        }
+    }
+
+    private void runSync(SyncProgress progress) {
+        PokemonListResponse firstPage = fetchPage(POKEAPI_BASE_URL + "/pokemon?limit=" + pageSize);
+
+        progress.onStarted(firstPage.getCount() != null ? firstPage.getCount() : firstPage.getResults().size());
+        Instant syncedAt = Instant.now();
+        Map<Integer, PokemonSyncState> knownStates = loadKnownStates();
+
+        ChunkWriter writer = new ChunkWriter(syncedAt, progress);
+        try {
+            fetchAllPokemons(firstPage, knownStates, syncedAt, writer);
+            writer.flush();
+        } catch (RuntimeException e) {
+            // Keep what was already fetched: the failure is upstream more often than not
+            try {
+                writer.flush();
+            } catch (RuntimeException flushFailure) {
+                log.warn("Dropping {} fetched Pokemon that could not be written: {}",
+                        writer.buffered(), flushFailure.getMessage());
+                e.addSuppressed(flushFailure);
+            }
+            // The chunks written so far stay in the database: refresh the read side before failing, or it
+            // would keep serving (and validating ETags against) the previous data
+            if (writer.writtenCount > 0) {
+                log.warn("Pokemon sync failed after writing {} Pokemon, publishing them as a partial sync",
+                        writer.writtenCount);
+                try {
+                    publishCompleted(syncedAt, writer, false);
+                } catch (RuntimeException publishFailure) {
+                    e.addSuppressed(publishFailure);
+                }
+            }
+            throw e;
+        }
+
+        log.info("Pokemon sync finished: {} changed, {} unchanged", writer.changedCount, writer.unchangedCount);
+        publishCompleted(syncedAt, writer, true);
+    }
+
+    private void publishCompleted(Instant syncedAt, ChunkWriter writer, boolean complete) {
+        // Before the completion event, so everything reacting to it already sees the new ranks. The
+        // sync never deletes rows, so ranks can only move when it upserted some
+        if (writer.writtenCount > 0) {
+            pokemonRepository.refreshLeaderboards();
+        }
+        eventPublisher.publishEvent(new PokemonSyncCompletedEvent(syncedAt, writer.writtenCount, writer.touchedCount, complete));
+    }
+
+    private PokemonListResponse fetchPage(String url) {
+        PokemonListResponse page = restClient.get()
+                .uri(url)
                 .retrieve()
                 .body(PokemonListResponse.class);
 
-        if (listResponse == null || listResponse.getResults() == null) {
-            throw new RuntimeException("Failed to fetch Pokemon list from PokeAPI");
+        if (page == null || page.getResults() == null) {
+            throw new RuntimeException("Failed to fetch Pokemon list from PokeAPI: " + url);
         }
+        return page;
+    }
+
+    private Map<Integer, PokemonSyncState> loadKnownStates() {
+        Map<Integer, PokemonSyncState> states = new HashMap<>();
+        for (PokemonSyncState state : pokemonRepository.findAllSyncStates()) {
+            if (state.getPokeApiId() != null) {
+                states.putIfAbsent(state.getPokeApiId(), state);
+            }
+        }
+        return states;
+    }
 
-        List<Pokemon> pokemons = listResponse.getResults().stream()
-                .map(this::fetchAndMapPokemon)
-                .filter(pokemon -> pokemon != null)
-                .toList();
+    /**
+     * Follows the list endpoint's {@code next} links page by page. The next page is requested on its
+     * own virtual thread as soon as the current one arrives, so listing overlaps with the detail fetches
+     * of the page in hand. Every detail document is fetched on its own virtual thread, with at most
+     * {@code parallelism} documents either in flight or waiting to be persisted. Results are handed to
+     * the writer in completion order on the calling thread, so heap usage does not grow with the
+     * catalogue size.
+     */
+    private void fetchAllPokemons(PokemonListResponse firstPage,
+                                  Map<Integer, PokemonSyncState> knownStates,
+                                  Instant syncedAt,
+                                  ChunkWriter writer) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<FetchResult> completionService = new ExecutorCompletionService<>(executor);
+            int pending = 0;
+            PokemonListResponse page = firstPage;
+            while (page != null) {
+                String nextUrl = page.getNext();
+                Future<PokemonListResponse> nextPage = nextUrl != null && !page.getResults().isEmpty()
+                        ? executor.submit(() -> fetchPage(nextUrl))
+                        : null;
 
-        pokemonRepository.saveAll(pokemons);
+                for (PokemonListResponse.PokemonBasic basicInfo : page.getResults()) {
+                    if (pending >= parallelism) {
+                        writer.accept(completionService.take().get());
+                        pending--;
+                    }
+                    PokemonSyncState knownState = knownStates.get(extractPokeApiId(basicInfo.getUrl()));
+                    completionService.submit(() -> fetchAndMapPokemon(basicInfo, knownState, syncedAt));
+                    pending++;
+                }
+
+                page = nextPage != null ? nextPage.get() : null;
+            }
+
+            while (pending > 0) {
+                writer.accept(completionService.take().get());
+                pending--;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Pokemon sync interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
     }
 
-    private Pokemon fetchAndMapPokemon(PokemonListResponse.PokemonBasic basicInfo) {
+    private FetchResult fetchAndMapPokemon(PokemonListResponse.PokemonBasic basicInfo,
+                                           PokemonSyncState knownState,
+                                           Instant syncedAt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            String detailJson = restClient.get()
+            String knownEtag = incremental && knownState != null ? knownState.getEtag() : null;
+            ResponseEntity<byte[]> response = restClient.get()
                     .uri(basicInfo.getUrl())
+                    .headers(headers -> {
+                        if (knownEtag != null) {
+                            headers.setIfNoneMatch(knownEtag);
+                        }
+                    })
                     .retrieve()
-                    .body(String.class);
+                    .toEntity(byte[].class);
+
+            if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                recordFetch(sample, "not_modified");
+                return FetchResult.unchanged(knownState.getPokeApiId());
+            }
 
-            PokemonDetailResponse detail = objectMapper.readValue(detailJson, PokemonDetailResponse.class);
+            // Keep the payload as the bytes read off the wire: hashing and parsing both work on them directly
+            byte[] detailJson = response.getBody();
+            String contentHash = hash(detailJson);
+            if (incremental && knownState != null && contentHash.equals(knownState.getContentHash())) {
+                recordFetch(sample, "unchanged");
+                return FetchResult.unchanged(knownState.getPokeApiId());
+            }
+
+            PokemonDetailResponse detail = PokemonDetailParser.parse(objectMapper.getFactory(), detailJson);
 
             Pokemon pokemon = new Pokemon();
+            if (knownState != null) {
+                pokemon.setId(knownState.getId());
+            }
             pokemon.setPokeApiId(detail.getId());
             pokemon.setName(detail.getName());
             pokemon.setWeight(detail.getWeight());
             pokemon.setHeight(detail.getHeight());
             pokemon.setBaseExperience(detail.getBase_experience());
-            pokemon.setRawJson(detailJson);
-            pokemon.setLastSynced(Instant.now());
+            mapStatsTypesAndAbilities(detail, pokemon);
+            pokemon.setRawJsonBytes(detailJson);
+            pokemon.setContentHash(contentHash);
+            pokemon.setEtag(response.getHeaders().getETag());
+            pokemon.setLastSynced(syncedAt);
 
-            return pokemon;
+            recordFetch(sample, "changed");
+            return FetchResult.changed(pokemon);
 
+        } catch (CircuitBreakerOpenException e) {
+            // Upstream is down: abort the whole sync instead of recording every remaining Pokémon as failed
+            throw e;
         } catch (Exception e) {
+            String cause = failureCause(e);
+            recordFetch(sample, "failed");
+            meterRegistry.counter("pokeapi.sync.fetch.failures", "cause", cause).increment();
+            log.warn("Failed to sync {} ({}): {}", basicInfo.getUrl(), cause, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void mapStatsTypesAndAbilities(PokemonDetailResponse detail, Pokemon pokemon) {
+        pokemon.setHp(detail.baseStat("hp"));
+        pokemon.setAttack(detail.baseStat("attack"));
+        pokemon.setDefense(detail.baseStat("defense"));
+        pokemon.setSpecialAttack(detail.baseStat("special-attack"));
+        pokemon.setSpecialDefense(detail.baseStat("special-defense"));
+        pokemon.setSpeed(detail.baseStat("speed"));
+
+        for (PokemonDetailResponse.PokemonType type : detail.getTypes()) {
+            if (type.getSlot() != null && type.getType() != null && type.getType().getName() != null) {
+                pokemon.getTypes().add(new PokemonTypeSlot(type.getSlot(), type.getType().getName()));
+            }
+        }
+        for (PokemonDetailResponse.PokemonAbility ability : detail.getAbilities()) {
+            if (ability.getSlot() != null && ability.getAbility() != null && ability.getAbility().getName() != null) {
+                pokemon.getAbilities().add(new PokemonAbilitySlot(ability.getSlot(), ability.getAbility().getName(),
+                        Boolean.TRUE.equals(ability.getIs_hidden())));
+            }
+        }
+    }
+
+    private void recordFetch(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("pokeapi.sync.fetch")
+                .description("Fetch and mapping time of a single PokeAPI detail document")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * Low-cardinality failure tag: the HTTP status for error responses, otherwise the exception type
+     * (unwrapping {@link ResourceAccessException} so timeouts and connection errors stay distinguishable).
+     */
+    static String failureCause(Exception e) {
+        if (e instanceof RestClientResponseException responseException) {
+            return "http_" + responseException.getStatusCode().value();
+        }
+        Throwable cause = e instanceof ResourceAccessException && e.getCause() != null ? e.getCause() : e;
+        return cause.getClass().getSimpleName();
+    }
+
+    /**
+     * PokeAPI detail urls end with the numeric id, e.g. {@code https://pokeapi.co/api/v2/pokemon/25/}.
+     */
+    static Integer extractPokeApiId(String url) {
+        if (url == null) {
+            return null;
+        }
+        String trimmed = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        try {
+            return Integer.valueOf(trimmed.substring(trimmed.lastIndexOf('/') + 1));
+        } catch (NumberFormatException e) {
             return null;
         }
     }
+
+    private static String hash(byte[] json) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(json));
+    }
+
+    /**
+     * Buffers fetch results and writes them in fixed-size chunks, each one a single JDBC batch.
+     */
+    private final class ChunkWriter {
+
+        private final Instant syncedAt;
+        private final SyncProgress progress;
+        private List<Pokemon> changed = new ArrayList<>();
+        private List<Integer> unchanged = new ArrayList<>();
+        private int changedCount;
+        private int unchangedCount;
+        private int writtenCount;
+        private int touchedCount;
+
+        private ChunkWriter(Instant syncedAt, SyncProgress progress) {
+            this.syncedAt = syncedAt;
+            this.progress = progress;
+        }
+
+        private void accept(FetchResult result) {
+            if (result == null) {
+                progress.onFailed();
+                return;
+            }
+            progress.onFetched();
+            if (result.changed() != null) {
+                changed.add(result.changed());
+                changedCount++;
+            } else {
+                unchanged.add(result.unchangedPokeApiId());
+                unchangedCount++;
+            }
+            if (changed.size() >= batchSize || unchanged.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!changed.isEmpty()) {
+                pokemonRepository.upsertAll(changed);
+                writtenCount += changed.size();
+                progress.onWritten(changed.size());
+                meterRegistry.counter("pokeapi.sync.rows", "operation", "upsert").increment(changed.size());
+                changed = new ArrayList<>(batchSize);
+            }
+            if (!unchanged.isEmpty()) {
+                pokemonRepository.touchLastSynced(unchanged, syncedAt);
+                touchedCount += unchanged.size();
+                meterRegistry.counter("pokeapi.sync.rows", "operation", "touch").increment(unchanged.size());
+                unchanged = new ArrayList<>(batchSize);
+            }
+        }
+
+        private int buffered() {
+            return changed.size() + unchanged.size();
+        }
+    }
+
+    private record FetchResult(Pokemon changed, Integer unchangedPokeApiId) {
+
+        static FetchResult changed(Pokemon pokemon) {
+            return new FetchResult(pokemon, null);
+        }
+
+        static FetchResult unchanged(Integer pokeApiId) {
+            return new FetchResult(null, pokeApiId);
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package com.sergisalas.pokemonapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a ranking: the stat value and pokeApiId of the last Pokemon of a page. It is
+ * bound to the ranking it was issued for, so it cannot be replayed against a different stat.
+ */
+record RankingCursor(PokemonRanking ranking, int value, int pokeApiId) {
+
+    String encode() {
+        String raw = ranking.name() + ":" + value + ":" + pokeApiId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static RankingCursor decode(String cursor, PokemonRanking expectedRanking) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!expectedRanking.name().equals(parts[0])) {
+            throw new IllegalArgumentException("Cursor does not belong to the " + expectedRanking.getAttribute() + " ranking");
+        }
+        try {
+            return new RankingCursor(expectedRanking, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.sergisalas.pokemonapi.service;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * A validated export request: which ranking, in which order, and optionally how many rows.
+ */
+public record RankingExport(PokemonRanking ranking, Sort.Direction direction, Integer limit) {
+}
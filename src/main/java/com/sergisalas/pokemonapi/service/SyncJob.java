@@ -0,0 +1,71 @@
+package com.sergisalas.pokemonapi.service;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single run of the PokeAPI sync, with counters updated live by the sync itself.
+ */
+@Getter
+public class SyncJob implements SyncProgress {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final Instant startedAt;
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile int total;
+    private final AtomicInteger fetched = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger written = new AtomicInteger();
+
+    public SyncJob(String id, Instant startedAt) {
+        this.id = id;
+        this.startedAt = startedAt;
+    }
+
+    @Override
+    public void onStarted(int total) {
+        this.total = total;
+    }
+
+    @Override
+    public void onFetched() {
+        fetched.incrementAndGet();
+    }
+
+    @Override
+    public void onFailed() {
+        failed.incrementAndGet();
+    }
+
+    @Override
+    public void onWritten(int rows) {
+        written.addAndGet(rows);
+    }
+
+    public boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    public Duration getElapsed() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        return Duration.between(startedAt, end);
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void fail(Throwable e) {
+        error = e.getMessage();
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,74 @@
+package com.sergisalas.pokemonapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the sync in the background and keeps track of recent runs. Only one sync runs at a time:
+ * a trigger that arrives while a sync is in progress, manual or scheduled, joins the running job.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncJobService {
+
+    private final PokemonSyncService pokemonSyncService;
+
+    private final AtomicReference<SyncJob> runningJob = new AtomicReference<>();
+
+    private final Cache<String, SyncJob> recentJobs = Caffeine.newBuilder()
+            .maximumSize(50)
+            .build();
+
+    @Scheduled(cron = "${pokeapi.sync.cron:0 0 */12 * * *}")
+    public void scheduledSync() {
+        startOrJoin();
+    }
+
+    public SyncJob startOrJoin() {
+        SyncJob job = new SyncJob(UUID.randomUUID().toString(), Instant.now());
+        SyncJob running = runningJob.compareAndExchange(null, job);
+        if (running != null) {
+            return running;
+        }
+
+        recentJobs.put(job.getId(), job);
+        Thread.ofVirtual().name("pokemon-sync-" + job.getId()).start(() -> run(job));
+        return job;
+    }
+
+    public Optional<SyncJob> findJob(String id) {
+        return Optional.ofNullable(recentJobs.getIfPresent(id));
+    }
+
+    private void run(SyncJob job) {
+        Throwable failure = null;
+        try {
+            pokemonSyncService.syncAllPokemons(job);
+        } catch (Exception e) {
+            log.error("Pokemon sync {} failed", job.getId(), e);
+            failure = e;
+        } catch (Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            // Free the slot before publishing the outcome, so a caller that sees the job finished can start a new
+            // one. Even on an Error: otherwise every later trigger would join a job that never finishes.
+            runningJob.set(null);
+            if (failure == null) {
+                job.complete();
+            } else {
+                job.fail(failure);
+            }
+        }
+    }
+}
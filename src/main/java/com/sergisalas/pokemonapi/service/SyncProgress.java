@@ -0,0 +1,22 @@
+package com.sergisalas.pokemonapi.service;
+
+/**
+ * Receives progress updates while {@link PokemonSyncService} runs.
+ */
+public interface SyncProgress {
+
+    SyncProgress NONE = new SyncProgress() {
+    };
+
+    default void onStarted(int total) {
+    }
+
+    default void onFetched() {
+    }
+
+    default void onFailed() {
+    }
+
+    default void onWritten(int rows) {
+    }
+}
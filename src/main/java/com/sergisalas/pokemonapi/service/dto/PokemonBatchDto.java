@@ -0,0 +1,16 @@
+package com.sergisalas.pokemonapi.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PokemonBatchDto {
+    private List<PokemonDto> items;
+
+    // Requested ids and names with no matching Pokemon
+    private List<Integer> missingIds;
+    private List<String> missingNames;
+}
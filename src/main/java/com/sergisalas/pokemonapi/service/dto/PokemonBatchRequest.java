@@ -0,0 +1,20 @@
+package com.sergisalas.pokemonapi.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PokemonBatchRequest {
+    private List<Integer> ids;
+
+    // Matched case-insensitively
+    private List<String> names;
+
+    // Adds the stored PokeAPI document of each Pokemon to the response
+    private boolean includeRawJson;
+}
@@ -0,0 +1,27 @@
+package com.sergisalas.pokemonapi.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * {@link PokemonDto} plus the PokeAPI document it was built from, embedded as JSON rather than as a string.
+ */
+@Getter
+@Setter
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class PokemonDetailDto extends PokemonDto {
+
+    @JsonRawValue
+    private String rawJson;
+
+    public PokemonDetailDto(Integer pokeApiId, String name, Integer weight, Integer height, Integer baseExperience,
+                            Integer hp, Integer attack, Integer defense, Integer specialAttack,
+                            Integer specialDefense, Integer speed, String rawJson) {
+        super(pokeApiId, name, weight, height, baseExperience, hp, attack, defense, specialAttack, specialDefense, speed);
+        this.rawJson = rawJson;
+    }
+}
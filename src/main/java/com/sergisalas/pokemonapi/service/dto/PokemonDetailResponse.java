@@ -1,6 +1,11 @@
 package com.sergisalas.pokemonapi.service.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 public class PokemonDetailResponse {
@@ -9,4 +14,52 @@ public class PokemonDetailResponse {
     private Integer height;
     private Integer weight;
     private Integer base_experience;
-}
\ No newline at end of file
+    private List<PokemonStat> stats = new ArrayList<>();
+    private List<PokemonType> types = new ArrayList<>();
+    private List<PokemonAbility> abilities = new ArrayList<>();
+
+    /**
+     * Base value of the stat named {@code name} (e.g. {@code special-attack}), or null if it is not listed.
+     */
+    public Integer baseStat(String name) {
+        for (PokemonStat stat : stats) {
+            if (stat.getStat() != null && name.equals(stat.getStat().getName())) {
+                return stat.getBase_stat();
+            }
+        }
+        return null;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NamedResource {
+        private String name;
+        private String url;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PokemonStat {
+        private Integer base_stat;
+        private NamedResource stat;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PokemonType {
+        private Integer slot;
+        private NamedResource type;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PokemonAbility {
+        private Integer slot;
+        private Boolean is_hidden;
+        private NamedResource ability;
+    }
+}
@@ -17,6 +17,33 @@ public class PokemonDto {
     private Integer height;
     private Integer baseExperience;
 
+    private Integer hp;
+    private Integer attack;
+    private Integer defense;
+    private Integer specialAttack;
+    private Integer specialDefense;
+    private Integer speed;
+
+
+    public PokemonDto(Integer pokeApiId, String name, Integer weight, Integer height, Integer baseExperience) {
+        this.pokeApiId = pokeApiId;
+        this.name = name;
+        this.weight = weight;
+        this.height = height;
+        this.baseExperience = baseExperience;
+    }
+
+    public PokemonDto(Integer pokeApiId, String name, Integer weight, Integer height, Integer baseExperience,
+                      Integer hp, Integer attack, Integer defense, Integer specialAttack, Integer specialDefense,
+                      Integer speed) {
+        this(pokeApiId, name, weight, height, baseExperience);
+        this.hp = hp;
+        this.attack = attack;
+        this.defense = defense;
+        this.specialAttack = specialAttack;
+        this.specialDefense = specialDefense;
+        this.speed = speed;
+    }
 
     public PokemonDto(Pokemon pokemon) {
         this.pokeApiId = pokemon.getPokeApiId();
@@ -24,5 +51,11 @@ public class PokemonDto {
         this.weight = pokemon.getWeight();
         this.height = pokemon.getHeight();
         this.baseExperience = pokemon.getBaseExperience();
+        this.hp = pokemon.getHp();
+        this.attack = pokemon.getAttack();
+        this.defense = pokemon.getDefense();
+        this.specialAttack = pokemon.getSpecialAttack();
+        this.specialDefense = pokemon.getSpecialDefense();
+        this.speed = pokemon.getSpeed();
     }
 }
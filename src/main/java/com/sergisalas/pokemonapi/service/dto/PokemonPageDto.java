@@ -0,0 +1,15 @@
+package com.sergisalas.pokemonapi.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PokemonPageDto {
+    private List<PokemonDto> items;
+
+    // Cursor for the next page (pass it as 'after'), null on the last page
+    private String next;
+}
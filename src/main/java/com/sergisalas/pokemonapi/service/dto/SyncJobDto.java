@@ -0,0 +1,37 @@
+package com.sergisalas.pokemonapi.service.dto;
+
+import com.sergisalas.pokemonapi.service.SyncJob;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class SyncJobDto {
+    private String id;
+
+    private SyncJob.Status status;
+
+    private Integer total;
+    private Integer fetched;
+    private Integer failed;
+    private Integer written;
+
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Long elapsedMillis;
+
+    private String error;
+
+    public SyncJobDto(SyncJob job) {
+        this.id = job.getId();
+        this.status = job.getStatus();
+        this.total = job.getTotal();
+        this.fetched = job.getFetched().get();
+        this.failed = job.getFailed().get();
+        this.written = job.getWritten().get();
+        this.startedAt = job.getStartedAt();
+        this.finishedAt = job.getFinishedAt();
+        this.elapsedMillis = job.getElapsed().toMillis();
+        this.error = job.getError();
+    }
+}
@@ -1,7 +1,13 @@
 package com.sergisalas.pokemonapi.web;
 
+import com.sergisalas.pokemonapi.service.DatasetVersion;
 import com.sergisalas.pokemonapi.service.PokemonService;
+import com.sergisalas.pokemonapi.service.SyncJob;
+import com.sergisalas.pokemonapi.service.dto.PokemonBatchDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonBatchRequest;
 import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonPageDto;
+import com.sergisalas.pokemonapi.service.dto.SyncJobDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -12,11 +18,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
+import com.sergisalas.pokemonapi.service.RankingExport;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Tag(name = "Pokemon", description = "API de gestión de Pokémon")
 @RequestMapping("/pokemon")
@@ -26,6 +38,7 @@ import java.util.List;
 public class PokemonController {
 
     private final PokemonService pokemonService;
+    private final DatasetVersion datasetVersion;
 
     @Operation(
             summary = "Get the tallest Pokemon",
@@ -42,7 +55,7 @@ public class PokemonController {
             ),
             @ApiResponse(
                     responseCode = "400",
-                    description = "Invalid parameter (numPokemon must be >= 1)",
+                    description = "Invalid parameter (numPokemon must be between 1 and the configured maximum)",
                     content = @Content(mediaType = "application/json")
             ),
             @ApiResponse(
@@ -54,8 +67,10 @@ public class PokemonController {
     @GetMapping("/highest")
     public ResponseEntity<List<PokemonDto>> getHighest(
             @Parameter(description = "Number of Pokemon to return", example = "10")
-            @RequestParam @Min(value = 1, message = "Number most be higher than 0") Integer numPokemon) {
-        return ResponseEntity.ok(this.pokemonService.getHighestPokemon(numPokemon));
+            @RequestParam @Min(value = 1, message = "Number most be higher than 0") Integer numPokemon,
+            WebRequest webRequest) {
+        this.pokemonService.checkRankingRequest(numPokemon);
+        return conditional(webRequest, () -> this.pokemonService.getHighestPokemon(numPokemon));
     }
 
     @Operation(
@@ -73,7 +88,7 @@ public class PokemonController {
             ),
             @ApiResponse(
                     responseCode = "400",
-                    description = "Invalid parameter (numPokemon must be >= 1)",
+                    description = "Invalid parameter (numPokemon must be between 1 and the configured maximum)",
                     content = @Content(mediaType = "application/json")
             ),
             @ApiResponse(
@@ -85,8 +100,10 @@ public class PokemonController {
     @GetMapping("/heaviest")
     public ResponseEntity<List<PokemonDto>> getHeaviest(
             @Parameter(description = "Number of Pokemon to return", example = "10")
-            @RequestParam @Min(value = 1, message = "Number most be higher than 0") Integer numPokemon) {
-        return ResponseEntity.ok(this.pokemonService.getHeaviestPokemon(numPokemon));
+            @RequestParam @Min(value = 1, message = "Number most be higher than 0") Integer numPokemon,
+            WebRequest webRequest) {
+        this.pokemonService.checkRankingRequest(numPokemon);
+        return conditional(webRequest, () -> this.pokemonService.getHeaviestPokemon(numPokemon));
     }
 
     @Operation(
@@ -104,7 +121,7 @@ public class PokemonController {
             ),
             @ApiResponse(
                     responseCode = "400",
-                    description = "Invalid parameter (numPokemon must be >= 1)",
+                    description = "Invalid parameter (numPokemon must be between 1 and the configured maximum)",
                     content = @Content(mediaType = "application/json")
             ),
             @ApiResponse(
@@ -116,21 +133,187 @@ public class PokemonController {
     @GetMapping("/highestExperience")
     public ResponseEntity<List<PokemonDto>> getHighestExperience(
             @Parameter(description = "Number of Pokemon to return", example = "10")
-            @RequestParam @Min(value = 1, message = "Number most be higher than 0") Integer numPokemon) {
-        return ResponseEntity.ok(this.pokemonService.getHighestExperiencesPokemon(numPokemon));
+            @RequestParam @Min(value = 1, message = "Number most be higher than 0") Integer numPokemon,
+            WebRequest webRequest) {
+        this.pokemonService.checkRankingRequest(numPokemon);
+        return conditional(webRequest, () -> this.pokemonService.getHighestExperiencesPokemon(numPokemon));
+    }
+
+    @Operation(
+            summary = "Get a ranking by any stat",
+            description = "Returns one page of Pokemon ranked by the given stat. Pass the 'next' value of a page "
+                    + "as 'after' to get the following one. Pokemon without a value for the stat are not listed"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page retrieved successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PokemonPageDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid parameter (unknown stat or order, limit out of range, malformed cursor)",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/top")
+    public ResponseEntity<PokemonPageDto> getTop(
+            @Parameter(description = "Stat to rank by: weight, height, base_experience, hp, attack, defense, special_attack, special_defense or speed", example = "weight")
+            @RequestParam String stat,
+            @Parameter(description = "Sort order: desc or asc", example = "desc")
+            @RequestParam(defaultValue = "desc") String order,
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "Limit must be higher than 0") Integer limit,
+            @Parameter(description = "Cursor returned as 'next' by the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Only Pokemon whose stat is at least this value")
+            @RequestParam(required = false) Integer min,
+            @Parameter(description = "Only Pokemon whose stat is at most this value")
+            @RequestParam(required = false) Integer max,
+            @Parameter(description = "Only Pokemon of this type, e.g. fire", example = "fire")
+            @RequestParam(required = false) String type,
+            WebRequest webRequest) {
+        this.pokemonService.checkTopRequest(stat, order, limit, after);
+        return conditional(webRequest, () -> this.pokemonService.getTopPokemon(stat, order, limit, after, min, max, type));
+    }
+
+    @Operation(
+            summary = "Export a full ranking",
+            description = "Streams every Pokemon ranked by the given stat as newline-delimited JSON, one Pokemon "
+                    + "per line. Use it instead of the top-N endpoints when more rows are needed than they allow"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Ranking streamed successfully",
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = PokemonDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid parameter (unknown stat or order, limit lower than 1)",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Stat to rank by: weight, height, base_experience, hp, attack, defense, special_attack, special_defense or speed", example = "weight")
+            @RequestParam(defaultValue = "weight") String stat,
+            @Parameter(description = "Sort order: desc or asc", example = "desc")
+            @RequestParam(defaultValue = "desc") String order,
+            @Parameter(description = "Maximum number of Pokemon to export; all of them when omitted")
+            @RequestParam(required = false) Integer limit) {
+        RankingExport export = this.pokemonService.exportRanking(stat, order, limit);
+        StreamingResponseBody body = out -> this.pokemonService.writeExport(export, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Get many Pokemon at once",
+            description = "Returns the Pokemon matching a list of PokeAPI ids and/or names in a single response, "
+                    + "ordered by id. Ids and names without a match are listed in 'missingIds' and 'missingNames'"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Pokemon retrieved successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PokemonBatchDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request (no ids or names, or more than the configured maximum)",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal server error",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<PokemonBatchDto> getBatch(@RequestBody PokemonBatchRequest request) {
+        return ResponseEntity.ok(this.pokemonService.getBatch(request));
     }
 
     @Operation(
             summary = "Synchronize database",
-            description = "Synchronizes the database with information from the Pokemon API"
+            description = "Starts a background synchronization with the Pokemon API and returns its job. "
+                    + "If a synchronization is already running, the running job is returned instead"
     )
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "204", description = "Synchronization completed"),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Synchronization started or already running",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SyncJobDto.class)
+                    )
+            ),
             @ApiResponse(responseCode = "500", description = "Synchronization error")
     })
     @PostMapping("/sync")
-    public ResponseEntity<Void> syncDataBase() {
-        this.pokemonService.syncDataBase();
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<SyncJobDto> syncDataBase() {
+        SyncJob job = this.pokemonService.syncDataBase();
+        return ResponseEntity.accepted()
+                .location(URI.create("/pokemon/sync/" + job.getId()))
+                .body(new SyncJobDto(job));
+    }
+
+    @Operation(
+            summary = "Get synchronization progress",
+            description = "Returns the status and progress counters of a synchronization job"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Job found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SyncJobDto.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired job id")
+    })
+    @GetMapping("/sync/{id}")
+    public ResponseEntity<SyncJobDto> getSyncJob(
+            @Parameter(description = "Synchronization job id")
+            @PathVariable String id) {
+        return this.pokemonService.getSyncJob(id)
+                .map(job -> ResponseEntity.ok(new SyncJobDto(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Adds {@code ETag} and {@code Last-Modified} to a ranking response, or answers {@code If-None-Match} /
+     * {@code If-Modified-Since} with 304 before the body is built, so polling clients cost no query.
+     * Callers validate the parameters first, so invalid ones still get their 400. The version is read
+     * before the body, so the tags never describe newer data than the body holds.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest webRequest, Supplier<T> body) {
+        DatasetVersion.Version version = this.datasetVersion.current();
+        if (webRequest.checkNotModified(version.etag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
+        return ResponseEntity.ok(body.get());
     }
 }
@@ -0,0 +1,44 @@
+package db.migration.common;
+
+import com.sergisalas.pokemonapi.domain.GzipJsonConverter;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * One-time copy of every stored detail document into the compressed column added by V2. Runs in
+ * Java because neither H2 nor PostgreSQL can produce gzip in plain SQL.
+ */
+public class V3__Compress_raw_json extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE pokemons SET raw_json_gz = ? WHERE id = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rows = select.executeQuery("SELECT id, raw_json FROM pokemons WHERE raw_json IS NOT NULL")) {
+                int pending = 0;
+                while (rows.next()) {
+                    update.setBytes(1, GzipJsonConverter.gzip(rows.getString("raw_json")));
+                    update.setString(2, rows.getString("id"));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+            }
+        }
+    }
+}
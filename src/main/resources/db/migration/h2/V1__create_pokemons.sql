@@ -0,0 +1,17 @@
+CREATE TABLE pokemons (
+    id              VARCHAR(255) NOT NULL PRIMARY KEY,
+    poke_api_id     INTEGER,
+    name            VARCHAR(255),
+    weight          INTEGER,
+    height          INTEGER,
+    base_experience INTEGER,
+    raw_json        CLOB,
+    content_hash    VARCHAR(255),
+    etag            VARCHAR(255),
+    last_synced     TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE UNIQUE INDEX ux_pokemons_poke_api_id ON pokemons (poke_api_id);
+CREATE INDEX ix_pokemons_weight ON pokemons (weight DESC NULLS LAST);
+CREATE INDEX ix_pokemons_height ON pokemons (height DESC NULLS LAST);
+CREATE INDEX ix_pokemons_base_experience ON pokemons (base_experience DESC NULLS LAST);
@@ -0,0 +1,2 @@
+-- Compressed copy of raw_json, filled by V3 and renamed to raw_json by V4
+ALTER TABLE pokemons ADD COLUMN raw_json_gz VARBINARY;
@@ -0,0 +1,2 @@
+ALTER TABLE pokemons DROP COLUMN raw_json;
+ALTER TABLE pokemons ALTER COLUMN raw_json_gz RENAME TO raw_json;
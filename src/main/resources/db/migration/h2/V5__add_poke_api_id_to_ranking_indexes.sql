@@ -0,0 +1,8 @@
+-- pokeApiId breaks ties in the ranking order, so keyset pages of /pokemon/top seek on (stat, poke_api_id)
+DROP INDEX ix_pokemons_weight;
+DROP INDEX ix_pokemons_height;
+DROP INDEX ix_pokemons_base_experience;
+
+CREATE INDEX ix_pokemons_weight ON pokemons (weight DESC NULLS LAST, poke_api_id DESC);
+CREATE INDEX ix_pokemons_height ON pokemons (height DESC NULLS LAST, poke_api_id DESC);
+CREATE INDEX ix_pokemons_base_experience ON pokemons (base_experience DESC NULLS LAST, poke_api_id DESC);
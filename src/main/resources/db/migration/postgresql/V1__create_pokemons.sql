@@ -0,0 +1,45 @@
+-- Deployments from before Flyway already have this table, created by Hibernate (ddl-auto=update).
+-- Flyway baselines them below V1 (spring.flyway.baseline-on-migrate), so this script brings their
+-- table to the same shape instead of failing on it.
+CREATE TABLE IF NOT EXISTS pokemons (
+    id              VARCHAR(255) NOT NULL PRIMARY KEY,
+    poke_api_id     INTEGER,
+    name            VARCHAR(255),
+    weight          INTEGER,
+    height          INTEGER,
+    base_experience INTEGER,
+    raw_json        TEXT,
+    content_hash    VARCHAR(255),
+    etag            VARCHAR(255),
+    last_synced     TIMESTAMP(6) WITH TIME ZONE
+);
+
+ALTER TABLE pokemons ADD COLUMN IF NOT EXISTS content_hash VARCHAR(255);
+ALTER TABLE pokemons ADD COLUMN IF NOT EXISTS etag VARCHAR(255);
+
+-- Hibernate mapped the former @Lob rawJson to a large object (oid): copy the documents into a text column
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'pokemons'
+                 AND column_name = 'raw_json' AND data_type = 'oid') THEN
+        ALTER TABLE pokemons RENAME COLUMN raw_json TO raw_json_oid;
+        ALTER TABLE pokemons ADD COLUMN raw_json TEXT;
+        UPDATE pokemons SET raw_json = convert_from(lo_get(raw_json_oid), 'UTF8') WHERE raw_json_oid IS NOT NULL;
+        PERFORM lo_unlink(raw_json_oid) FROM pokemons WHERE raw_json_oid IS NOT NULL;
+        ALTER TABLE pokemons DROP COLUMN raw_json_oid;
+    END IF;
+END $$;
+
+-- The former saveAll-based sync inserted a new row per Pokemon on every run: keep only the latest one
+DELETE FROM pokemons p
+USING pokemons newer
+WHERE p.poke_api_id = newer.poke_api_id
+  AND (COALESCE(p.last_synced, '-infinity'), p.id) < (COALESCE(newer.last_synced, '-infinity'), newer.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_pokemons_poke_api_id ON pokemons (poke_api_id);
+-- Plain DESC, i.e. NULLS FIRST on PostgreSQL: the same order as the queries' ORDER BY stat DESC, which
+-- lets the planner read the top-N straight off the index instead of sorting
+CREATE INDEX IF NOT EXISTS ix_pokemons_weight ON pokemons (weight DESC);
+CREATE INDEX IF NOT EXISTS ix_pokemons_height ON pokemons (height DESC);
+CREATE INDEX IF NOT EXISTS ix_pokemons_base_experience ON pokemons (base_experience DESC);
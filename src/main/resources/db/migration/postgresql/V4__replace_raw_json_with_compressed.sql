@@ -0,0 +1,2 @@
+ALTER TABLE pokemons DROP COLUMN raw_json;
+ALTER TABLE pokemons RENAME COLUMN raw_json_gz TO raw_json;
@@ -0,0 +1,11 @@
+-- pokeApiId breaks ties in the ranking order, so keyset pages of /pokemon/top seek on (stat, poke_api_id).
+-- Plain DESC on both columns, i.e. NULLS FIRST on PostgreSQL: ORDER BY stat DESC, poke_api_id DESC reads
+-- the index forwards and ORDER BY stat ASC, poke_api_id ASC (nulls last) reads it backwards, so neither
+-- direction needs a sort. DESC NULLS LAST would match neither.
+DROP INDEX ix_pokemons_weight;
+DROP INDEX ix_pokemons_height;
+DROP INDEX ix_pokemons_base_experience;
+
+CREATE INDEX ix_pokemons_weight ON pokemons (weight DESC, poke_api_id DESC);
+CREATE INDEX ix_pokemons_height ON pokemons (height DESC, poke_api_id DESC);
+CREATE INDEX ix_pokemons_base_experience ON pokemons (base_experience DESC, poke_api_id DESC);
@@ -0,0 +1,37 @@
+-- Base stats as plain columns, each with a ranking index like the existing stats
+ALTER TABLE pokemons ADD COLUMN hp INTEGER;
+ALTER TABLE pokemons ADD COLUMN attack INTEGER;
+ALTER TABLE pokemons ADD COLUMN defense INTEGER;
+ALTER TABLE pokemons ADD COLUMN special_attack INTEGER;
+ALTER TABLE pokemons ADD COLUMN special_defense INTEGER;
+ALTER TABLE pokemons ADD COLUMN speed INTEGER;
+
+CREATE INDEX ix_pokemons_hp ON pokemons (hp DESC, poke_api_id DESC);
+CREATE INDEX ix_pokemons_attack ON pokemons (attack DESC, poke_api_id DESC);
+CREATE INDEX ix_pokemons_defense ON pokemons (defense DESC, poke_api_id DESC);
+CREATE INDEX ix_pokemons_special_attack ON pokemons (special_attack DESC, poke_api_id DESC);
+CREATE INDEX ix_pokemons_special_defense ON pokemons (special_defense DESC, poke_api_id DESC);
+CREATE INDEX ix_pokemons_speed ON pokemons (speed DESC, poke_api_id DESC);
+
+-- Types and abilities are keyed on poke_api_id, which (unlike id) the sync keeps stable
+CREATE TABLE pokemon_types (
+    poke_api_id INTEGER     NOT NULL REFERENCES pokemons (poke_api_id) ON DELETE CASCADE,
+    slot        INTEGER     NOT NULL,
+    type_name   VARCHAR(50) NOT NULL,
+    PRIMARY KEY (poke_api_id, slot)
+);
+
+CREATE INDEX ix_pokemon_types_type_name ON pokemon_types (type_name, poke_api_id);
+
+CREATE TABLE pokemon_abilities (
+    poke_api_id  INTEGER      NOT NULL REFERENCES pokemons (poke_api_id) ON DELETE CASCADE,
+    slot         INTEGER      NOT NULL,
+    ability_name VARCHAR(100) NOT NULL,
+    hidden       BOOLEAN      NOT NULL,
+    PRIMARY KEY (poke_api_id, slot)
+);
+
+CREATE INDEX ix_pokemon_abilities_ability_name ON pokemon_abilities (ability_name, poke_api_id);
+
+-- Existing rows have none of the new data yet: forget their hash and ETag so the next sync rewrites them
+UPDATE pokemons SET content_hash = NULL, etag = NULL;
@@ -0,0 +1,37 @@
+-- Precomputed position of every Pokemon in each ranking, rebuilt in one transaction at the end of every sync,
+-- so a top-N query is a primary key range scan instead of a sort
+CREATE TABLE pokemon_leaderboard (
+    ranking     VARCHAR(30) NOT NULL,
+    rank        INTEGER     NOT NULL,
+    poke_api_id INTEGER     NOT NULL REFERENCES pokemons (poke_api_id) ON DELETE CASCADE,
+    PRIMARY KEY (ranking, rank)
+);
+
+-- Fill it from the data already stored; later syncs keep it up to date
+INSERT INTO pokemon_leaderboard (ranking, rank, poke_api_id)
+SELECT 'WEIGHT', ROW_NUMBER() OVER (ORDER BY weight DESC NULLS LAST, poke_api_id DESC), poke_api_id
+FROM pokemons WHERE poke_api_id IS NOT NULL;
+INSERT INTO pokemon_leaderboard (ranking, rank, poke_api_id)
+SELECT 'HEIGHT', ROW_NUMBER() OVER (ORDER BY height DESC NULLS LAST, poke_api_id DESC), poke_api_id
+FROM pokemons WHERE poke_api_id IS NOT NULL;
+INSERT INTO pokemon_leaderboard (ranking, rank, poke_api_id)
+SELECT 'BASE_EXPERIENCE', ROW_NUMBER() OVER (ORDER BY base_experience DESC NULLS LAST, poke_api_id DESC), poke_api_id
+FROM pokemons WHERE poke_api_id IS NOT NULL;
+INSERT INTO pokemon_leaderboard (ranking, rank, poke_api_id)
+SELECT 'HP', ROW_NUMBER() OVER (ORDER BY hp DESC NULLS LAST, poke_api_id DESC), poke_api_id
+FROM pokemons WHERE poke_api_id IS NOT NULL;
+INSERT INTO pokemon_leaderboard (ranking, rank, poke_api_id)
+SELECT 'ATTACK', ROW_NUMBER() OVER (ORDER BY attack DESC NULLS LAST, poke_api_id DESC), poke_api_id
+FROM pokemons WHERE poke_api_id IS NOT NULL;
+INSERT INTO pokemon_leaderboard (ranking, rank, poke_api_id)
+SELECT 'DEFENSE', ROW_NUMBER() OVER (ORDER BY defense DESC NULLS LAST, poke_api_id DESC), poke_api_id
+FROM pokemons WHERE poke_api_id IS NOT NULL;
+INSERT INTO pokemon_leaderboard (ranking, rank, poke_api_id)
+SELECT 'SPECIAL_ATTACK', ROW_NUMBER() OVER (ORDER BY special_attack DESC NULLS LAST, poke_api_id DESC), poke_api_id
+FROM pokemons WHERE poke_api_id IS NOT NULL;
+INSERT INTO pokemon_leaderboard (ranking, rank, poke_api_id)
+SELECT 'SPECIAL_DEFENSE', ROW_NUMBER() OVER (ORDER BY special_defense DESC NULLS LAST, poke_api_id DESC), poke_api_id
+FROM pokemons WHERE poke_api_id IS NOT NULL;
+INSERT INTO pokemon_leaderboard (ranking, rank, poke_api_id)
+SELECT 'SPEED', ROW_NUMBER() OVER (ORDER BY speed DESC NULLS LAST, poke_api_id DESC), poke_api_id
+FROM pokemons WHERE poke_api_id IS NOT NULL;
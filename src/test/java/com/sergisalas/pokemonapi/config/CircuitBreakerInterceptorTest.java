@@ -0,0 +1,110 @@
+package com.sergisalas.pokemonapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CircuitBreakerInterceptorTest {
+
+    @Mock
+    private ClientHttpRequestExecution execution;
+
+    private final MockClientHttpRequest request =
+            new MockClientHttpRequest(HttpMethod.GET, URI.create("https://pokeapi.co/api/v2/pokemon/25/"));
+
+    @Test
+    void intercept_shouldOpen_afterConsecutiveFailures_andRejectWithoutCallingUpstream() throws Exception {
+        // Given
+        CircuitBreakerInterceptor circuitBreaker = new CircuitBreakerInterceptor(2, Duration.ofMinutes(1));
+        when(execution.execute(any(), any())).thenThrow(new IOException("connection refused"));
+
+        // When
+        assertThrows(IOException.class, () -> circuitBreaker.intercept(request, new byte[0], execution));
+        assertThrows(IOException.class, () -> circuitBreaker.intercept(request, new byte[0], execution));
+
+        // Then
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, circuitBreaker.getState());
+        assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.intercept(request, new byte[0], execution));
+        verify(execution, times(2)).execute(any(), any());
+    }
+
+    @Test
+    void intercept_shouldResetFailureCount_onSuccess() throws Exception {
+        // Given
+        CircuitBreakerInterceptor circuitBreaker = new CircuitBreakerInterceptor(2, Duration.ofMinutes(1));
+        when(execution.execute(any(), any()))
+                .thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE))
+                .thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.OK))
+                .thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.intercept(request, new byte[0], execution);
+        }
+
+        // Then
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void intercept_shouldNotCountClientErrors_asFailures() throws Exception {
+        // Given
+        CircuitBreakerInterceptor circuitBreaker = new CircuitBreakerInterceptor(1, Duration.ofMinutes(1));
+        when(execution.execute(any(), any())).thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND));
+
+        // When
+        circuitBreaker.intercept(request, new byte[0], execution);
+
+        // Then
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void intercept_shouldCloseAgain_whenTrialRequestSucceedsAfterOpenDuration() throws Exception {
+        // Given
+        CircuitBreakerInterceptor circuitBreaker = new CircuitBreakerInterceptor(1, Duration.ofMillis(20));
+        when(execution.execute(any(), any()))
+                .thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.BAD_GATEWAY))
+                .thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+        circuitBreaker.intercept(request, new byte[0], execution);
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, circuitBreaker.getState());
+
+        // When
+        Thread.sleep(30);
+        circuitBreaker.intercept(request, new byte[0], execution);
+
+        // Then
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void intercept_shouldReopen_whenTrialRequestFails() throws Exception {
+        // Given
+        CircuitBreakerInterceptor circuitBreaker = new CircuitBreakerInterceptor(1, Duration.ofMillis(20));
+        when(execution.execute(any(), any())).thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.BAD_GATEWAY));
+        circuitBreaker.intercept(request, new byte[0], execution);
+
+        // When
+        Thread.sleep(30);
+        circuitBreaker.intercept(request, new byte[0], execution);
+
+        // Then
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, circuitBreaker.getState());
+        assertThrows(CircuitBreakerOpenException.class, () -> circuitBreaker.intercept(request, new byte[0], execution));
+    }
+}
@@ -0,0 +1,88 @@
+package com.sergisalas.pokemonapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourceConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class))
+            .withUserConfiguration(DataSourceConfig.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:primary",
+                    "spring.datasource.username=sa");
+
+    @Test
+    void routingIsDisabledByDefault() {
+        // Given / When
+        contextRunner.run(context -> {
+            // Then
+            assertFalse(context.containsBean("writeDataSource"));
+            assertFalse(context.containsBean("readDataSource"));
+            assertInstanceOf(HikariDataSource.class, context.getBean(DataSource.class));
+        });
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReadPool() {
+        // Given
+        contextRunner
+                .withPropertyValues(
+                        "pokeapi.datasource.routing.enabled=true",
+                        "pokeapi.datasource.read.jdbc-url=jdbc:h2:mem:replica",
+                        "pokeapi.datasource.read.maximum-pool-size=3",
+                        "pokeapi.datasource.write.maximum-pool-size=2")
+                .run(context -> {
+                    DataSource dataSource = context.getBean(DataSource.class);
+                    TransactionTemplate transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+                    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+                    // When
+                    transactions.setReadOnly(true);
+                    String readUrl = transactions.execute(status -> currentUrl(jdbcTemplate));
+                    transactions.setReadOnly(false);
+                    String writeUrl = transactions.execute(status -> currentUrl(jdbcTemplate));
+
+                    // Then
+                    assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+                    assertEquals("jdbc:h2:mem:replica", readUrl);
+                    assertEquals("jdbc:h2:mem:primary", writeUrl);
+                    assertEquals(3, context.getBean("readDataSource", HikariDataSource.class).getMaximumPoolSize());
+                    assertEquals(2, context.getBean("writeDataSource", HikariDataSource.class).getMaximumPoolSize());
+                });
+    }
+
+    @Test
+    void workOutsideTransactionsUsesTheWritePool() {
+        // Given
+        contextRunner
+                .withPropertyValues(
+                        "pokeapi.datasource.routing.enabled=true",
+                        "pokeapi.datasource.read.jdbc-url=jdbc:h2:mem:replica")
+                .run(context -> {
+                    // When
+                    String url = currentUrl(new JdbcTemplate(context.getBean(DataSource.class)));
+
+                    // Then
+                    assertEquals("jdbc:h2:mem:primary", url);
+                });
+    }
+
+    private static String currentUrl(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.execute((Connection connection) -> connection.getMetaData().getURL());
+    }
+}
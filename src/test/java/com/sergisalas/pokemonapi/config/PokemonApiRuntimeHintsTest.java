@@ -0,0 +1,59 @@
+package com.sergisalas.pokemonapi.config;
+
+import com.sergisalas.pokemonapi.domain.GzipJsonConverter;
+import com.sergisalas.pokemonapi.domain.Pokemon;
+import com.sergisalas.pokemonapi.domain.PokemonTypeSlot;
+import com.sergisalas.pokemonapi.service.dto.PokemonDetailDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonDetailResponse;
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonListResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PokemonApiRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new PokemonApiRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void pokeApiResponsesAreBindable() throws Exception {
+        // Given / When / Then
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(PokemonListResponse.class.getMethod("setResults", List.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(PokemonDetailResponse.class.getMethod("getStats")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(PokemonDetailResponse.NamedResource.class).test(hints));
+    }
+
+    @Test
+    void projectionDtosCanBeConstructedByHibernate() {
+        // Given / When / Then
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(PokemonDto.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(PokemonDetailDto.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void entitiesAndConverterAreRegistered() {
+        // Given / When / Then
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(Pokemon.class).withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(PokemonTypeSlot.class).withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(GzipJsonConverter.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+    }
+}
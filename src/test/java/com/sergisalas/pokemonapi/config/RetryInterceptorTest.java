@@ -0,0 +1,135 @@
+package com.sergisalas.pokemonapi.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetryInterceptorTest {
+
+    @Mock
+    private ClientHttpRequestExecution execution;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RetryInterceptor retryInterceptor;
+    private MockClientHttpRequest request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryInterceptor = new RetryInterceptor(3, Duration.ofMillis(1), Duration.ofSeconds(1), meterRegistry);
+        request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://pokeapi.co/api/v2/pokemon/25/"));
+    }
+
+    @Test
+    void intercept_shouldRetryTransientStatus_untilSuccess() throws Exception {
+        // Given
+        when(execution.execute(any(), any()))
+                .thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE))
+                .thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+
+        // When
+        ClientHttpResponse response = retryInterceptor.intercept(request, new byte[0], execution);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(execution, times(2)).execute(any(), any());
+        assertEquals(1, meterRegistry.get("pokeapi.client.retries").tag("reason", "http_503").counter().count());
+    }
+
+    @Test
+    void intercept_shouldRetryIoErrors_andRethrowAfterMaxAttempts() throws Exception {
+        // Given
+        when(execution.execute(any(), any())).thenThrow(new HttpTimeoutException("request timed out"));
+
+        // When & Then
+        assertThrows(HttpTimeoutException.class, () -> retryInterceptor.intercept(request, new byte[0], execution));
+        verify(execution, times(3)).execute(any(), any());
+    }
+
+    @Test
+    void intercept_shouldNotRetry_whenStatusIsNotTransient() throws Exception {
+        // Given
+        when(execution.execute(any(), any())).thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND));
+
+        // When
+        ClientHttpResponse response = retryInterceptor.intercept(request, new byte[0], execution);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(execution, times(1)).execute(any(), any());
+    }
+
+    @Test
+    void intercept_shouldHonorRetryAfter_whenTooManyRequests() throws Exception {
+        // Given
+        MockClientHttpResponse tooManyRequests = new MockClientHttpResponse(new byte[0], HttpStatus.TOO_MANY_REQUESTS);
+        tooManyRequests.getHeaders().set(HttpHeaders.RETRY_AFTER, "0");
+        when(execution.execute(any(), any()))
+                .thenReturn(tooManyRequests)
+                .thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+
+        // When
+        ClientHttpResponse response = retryInterceptor.intercept(request, new byte[0], execution);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(execution, times(2)).execute(any(), any());
+    }
+
+    @Test
+    void intercept_shouldGiveUp_whenRetryAfterExceedsMaxBackoff() throws Exception {
+        // Given
+        MockClientHttpResponse tooManyRequests = new MockClientHttpResponse(new byte[0], HttpStatus.TOO_MANY_REQUESTS);
+        tooManyRequests.getHeaders().set(HttpHeaders.RETRY_AFTER, "120");
+        when(execution.execute(any(), any())).thenReturn(tooManyRequests);
+
+        // When
+        ClientHttpResponse response = retryInterceptor.intercept(request, new byte[0], execution);
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        verify(execution, times(1)).execute(any(), any());
+    }
+
+    @Test
+    void intercept_shouldNotRetry_nonIdempotentRequests() throws Exception {
+        // Given
+        MockClientHttpRequest post = new MockClientHttpRequest(HttpMethod.POST, URI.create("https://pokeapi.co/api/v2/pokemon"));
+        when(execution.execute(any(), any())).thenThrow(new IOException("connection reset"));
+
+        // When & Then
+        assertThrows(IOException.class, () -> retryInterceptor.intercept(post, new byte[0], execution));
+        verify(execution, times(1)).execute(any(), any());
+    }
+
+    @Test
+    void backoff_shouldStayWithinExponentialCeiling() {
+        RetryInterceptor interceptor = new RetryInterceptor(5, Duration.ofMillis(100), Duration.ofMillis(300), meterRegistry);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(interceptor.backoff(1).toMillis() <= 100);
+            assertTrue(interceptor.backoff(2).toMillis() <= 200);
+            assertTrue(interceptor.backoff(5).toMillis() <= 300);
+        }
+    }
+}
@@ -1,15 +1,42 @@
 package com.sergisalas.pokemonapi.integration;
 
+import com.sergisalas.pokemonapi.config.CacheConfig;
+import com.sergisalas.pokemonapi.domain.GzipJsonConverter;
 import com.sergisalas.pokemonapi.domain.Pokemon;
+import com.sergisalas.pokemonapi.domain.PokemonAbilitySlot;
+import com.sergisalas.pokemonapi.domain.PokemonTypeSlot;
 import com.sergisalas.pokemonapi.persistence.PokemonRepository;
+import com.sergisalas.pokemonapi.service.DatasetVersion;
+import com.sergisalas.pokemonapi.service.PokemonRankingIndex;
+import com.sergisalas.pokemonapi.service.PokemonSyncCompletedEvent;
+import com.sergisalas.pokemonapi.service.PokemonSyncService;
+import com.sergisalas.pokemonapi.service.SyncProgress;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -23,16 +50,44 @@ class PokemonIntegrationTest {
     @Autowired
     private PokemonRepository pokemonRepository;
 
+    @Autowired
+    private PokemonRankingIndex pokemonRankingIndex;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    // Never reach the real PokeAPI: a background sync would write into the fixture while other tests run
+    @MockitoBean
+    private PokemonSyncService pokemonSyncService;
+
     @BeforeEach
     void setUp() {
         pokemonRepository.deleteAll();
+        pokemonRankingIndex.rebuild();
+        cacheManager.getCache(CacheConfig.POKEMON_RANKINGS).clear();
 
         // Datos de prueba
-        pokemonRepository.save(createPokemon("pikachu", 4, 60, 112));
-        pokemonRepository.save(createPokemon("charizard", 17, 905, 240));
-        pokemonRepository.save(createPokemon("blastoise", 16, 855, 239));
-        pokemonRepository.save(createPokemon("venusaur", 20, 1000, 236));
-        pokemonRepository.save(createPokemon("snorlax", 21, 4600, 189));
+        pokemonRepository.save(withSpeedAndTypes(createPokemon(25, "pikachu", 4, 60, 112), 90, "electric"));
+        pokemonRepository.save(withSpeedAndTypes(createPokemon(6, "charizard", 17, 905, 240), 100, "fire", "flying"));
+        pokemonRepository.save(withSpeedAndTypes(createPokemon(9, "blastoise", 16, 855, 239), 78, "water"));
+        pokemonRepository.save(withSpeedAndTypes(createPokemon(3, "venusaur", 20, 1000, 236), 80, "grass", "poison"));
+        pokemonRepository.save(withSpeedAndTypes(createPokemon(143, "snorlax", 21, 4600, 189), 30, "normal"));
+        pokemonRepository.refreshLeaderboards();
     }
 
     @Test
@@ -78,9 +133,395 @@ class PokemonIntegrationTest {
     }
 
     @Test
-    void syncDataBase_shouldSyncSuccessfully() throws Exception {
-        mockMvc.perform(post("/pokemon/sync"))
-                .andExpect(status().isNoContent());
+    void getHighest_aboveMaxResults_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/pokemon/highest")
+                        .param("numPokemon", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("/pokemon/export")));
+    }
+
+    @Test
+    void export_shouldStreamWholeRankingAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/pokemon/export")
+                        .param("stat", "height")
+                        .param("order", "asc"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(5, lines.size());
+        assertTrue(lines.get(0).contains("\"name\":\"pikachu\""));
+        assertTrue(lines.get(4).contains("\"name\":\"snorlax\""));
+    }
+
+    @Test
+    void export_withUnknownStat_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/pokemon/export")
+                        .param("stat", "unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getBatch_shouldMatchIdsAndNames_inOneResponse() throws Exception {
+        mockMvc.perform(post("/pokemon/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [25, 6, 999], \"names\": [\"Snorlax\", \"mew\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("charizard", "pikachu", "snorlax")))
+                .andExpect(jsonPath("$.items[0].rawJson").doesNotExist())
+                .andExpect(jsonPath("$.missingIds", contains(999)))
+                .andExpect(jsonPath("$.missingNames", contains("mew")));
+    }
+
+    @Test
+    void getBatch_shouldEmbedRawJson_whenRequested() throws Exception {
+        Pokemon pikachu = pokemonRepository.findByPokeApiId(25).orElseThrow();
+        pikachu.setRawJson("{\"id\":25,\"name\":\"pikachu\"}");
+        pokemonRepository.save(pikachu);
+
+        mockMvc.perform(post("/pokemon/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"names\": [\"pikachu\"], \"includeRawJson\": true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].rawJson.id", is(25)));
+    }
+
+    @Test
+    void getBatch_withoutIdsOrNames_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/pokemon/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void syncDataBase_shouldStartSyncJob() throws Exception {
+        String location = mockMvc.perform(post("/pokemon/sync"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").exists())
+                .andReturn().getResponse().getHeader("Location");
+
+        awaitSyncJobFinished(location);
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("COMPLETED")));
+        verify(pokemonSyncService).syncAllPokemons(any(SyncProgress.class));
+    }
+
+    @Test
+    void getSyncJob_withUnknownId_shouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/pokemon/sync/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getHeaviest_shouldCacheRanking_untilNextSync() throws Exception {
+        mockMvc.perform(get("/pokemon/heaviest")
+                        .param("numPokemon", "2"))
+                .andExpect(status().isOk());
+
+        Cache cache = cacheManager.getCache(CacheConfig.POKEMON_RANKINGS);
+        String key = "WEIGHT:" + datasetVersion.version() + ":2";
+        assertNotNull(cache.get(key));
+
+        eventPublisher.publishEvent(new PokemonSyncCompletedEvent(Instant.now(), 0, 0, true));
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void getHeaviest_shouldNotServeRankingStoredAfterEviction_fromThePreviousVersion() throws Exception {
+        // A miss that read the old index and is only stored once the sync has evicted the cache
+        Cache cache = cacheManager.getCache(CacheConfig.POKEMON_RANKINGS);
+        String staleKey = "WEIGHT:" + datasetVersion.version() + ":1";
+        eventPublisher.publishEvent(new PokemonSyncCompletedEvent(Instant.now(), 0, 0, true));
+        cache.put(staleKey, List.of());
+
+        mockMvc.perform(get("/pokemon/heaviest")
+                        .param("numPokemon", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("snorlax")));
+    }
+
+    @Test
+    void getHeaviest_shouldReturnNotModified_whenETagMatchesUntilNextSync() throws Exception {
+        eventPublisher.publishEvent(new PokemonSyncCompletedEvent(Instant.now().minusSeconds(60), 0, 0, true));
+
+        String etag = mockMvc.perform(get("/pokemon/heaviest")
+                        .param("numPokemon", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/pokemon/heaviest")
+                        .param("numPokemon", "2")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        eventPublisher.publishEvent(new PokemonSyncCompletedEvent(Instant.now(), 0, 0, true));
+
+        mockMvc.perform(get("/pokemon/heaviest")
+                        .param("numPokemon", "2")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void conditionalGet_shouldKeepETag_afterRestartOnTheSameData() throws Exception {
+        Instant syncedAt = Instant.parse("2026-05-01T10:00:00Z");
+        List<Pokemon> pokemons = pokemonRepository.findAll();
+        pokemons.forEach(pokemon -> pokemon.setLastSynced(syncedAt));
+        pokemonRepository.saveAll(pokemons);
+        eventPublisher.publishEvent(new PokemonSyncCompletedEvent(syncedAt, 0, pokemons.size(), true));
+
+        String etag = mockMvc.perform(get("/pokemon/heaviest")
+                        .param("numPokemon", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // What a restart does: the in-memory version number starts over, the data stays
+        datasetVersion.initialize();
+
+        mockMvc.perform(get("/pokemon/heaviest")
+                        .param("numPokemon", "2")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void conditionalGet_withInvalidParameters_shouldReturnBadRequest_evenWhenETagMatches() throws Exception {
+        String etag = mockMvc.perform(get("/pokemon/highest")
+                        .param("numPokemon", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/pokemon/highest")
+                        .param("numPokemon", "0")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/pokemon/highest")
+                        .param("numPokemon", "101")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/pokemon/top")
+                        .param("stat", "bogus")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/pokemon/top")
+                        .param("stat", "weight")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getTop_shouldWalkAllPages_withKeysetCursor() throws Exception {
+        String next = mockMvc.perform(get("/pokemon/top")
+                        .param("stat", "weight")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("snorlax", "venusaur")))
+                .andExpect(jsonPath("$.next").isString())
+                .andReturn().getResponse().getContentAsString()
+                .replaceAll(".*\"next\":\"([^\"]+)\".*", "$1");
+
+        next = mockMvc.perform(get("/pokemon/top")
+                        .param("stat", "weight")
+                        .param("limit", "2")
+                        .param("after", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("charizard", "blastoise")))
+                .andReturn().getResponse().getContentAsString()
+                .replaceAll(".*\"next\":\"([^\"]+)\".*", "$1");
+
+        mockMvc.perform(get("/pokemon/top")
+                        .param("stat", "weight")
+                        .param("limit", "2")
+                        .param("after", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("pikachu")))
+                .andExpect(jsonPath("$.next").value(nullValue()));
+    }
+
+    @Test
+    void getTop_shouldSortAscending_withinMinMaxBounds() throws Exception {
+        mockMvc.perform(get("/pokemon/top")
+                        .param("stat", "base_experience")
+                        .param("order", "asc")
+                        .param("min", "190")
+                        .param("max", "239"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("venusaur", "blastoise")))
+                .andExpect(jsonPath("$.next").value(nullValue()));
+    }
+
+    @Test
+    void getTop_shouldRankByBaseStat_withinType() throws Exception {
+        mockMvc.perform(get("/pokemon/top")
+                        .param("stat", "speed")
+                        .param("type", "poison"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("venusaur")))
+                .andExpect(jsonPath("$.items[0].speed", is(80)));
+
+        mockMvc.perform(get("/pokemon/top")
+                        .param("stat", "speed")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("charizard", "pikachu")));
+    }
+
+    @Test
+    void getTop_withUnknownStat_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/pokemon/top")
+                        .param("stat", "luck"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void upsertAll_shouldUpdateExistingRows_whenSyncedTwice() {
+        Pokemon first = createPokemon("mew", 4, 40, 270);
+        first.setPokeApiId(151);
+        pokemonRepository.upsertAll(List.of(first));
+
+        Pokemon second = createPokemon("mew", 4, 45, 300);
+        second.setPokeApiId(151);
+        pokemonRepository.upsertAll(List.of(second));
+
+        assertEquals(6, pokemonRepository.count());
+        Pokemon stored = pokemonRepository.findByPokeApiId(151).orElseThrow();
+        assertEquals(45, stored.getWeight());
+        assertEquals(300, stored.getBaseExperience());
+    }
+
+    @Test
+    void upsertAll_shouldReplaceTypesAndAbilities_whenSyncedAgain() {
+        Pokemon first = createPokemon(151, "mew", 4, 40, 270);
+        first.getTypes().add(new PokemonTypeSlot(1, "normal"));
+        first.getAbilities().add(new PokemonAbilitySlot(1, "synchronize", false));
+        pokemonRepository.upsertAll(List.of(first));
+
+        Pokemon second = createPokemon(151, "mew", 4, 40, 270);
+        second.setSpeed(100);
+        second.getTypes().add(new PokemonTypeSlot(1, "psychic"));
+        pokemonRepository.upsertAll(List.of(second));
+
+        assertEquals(List.of("psychic"), jdbcTemplate.queryForList(
+                "SELECT type_name FROM pokemon_types WHERE poke_api_id = 151", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pokemon_abilities WHERE poke_api_id = 151", Integer.class));
+        assertEquals(100, pokemonRepository.findByPokeApiId(151).orElseThrow().getSpeed());
+    }
+
+    @Test
+    void upsertAll_shouldStoreRawJsonCompressed_andReadItBackTransparently() {
+        String rawJson = "{\"id\":150,\"name\":\"mewtwo\",\"moves\":["
+                + "{\"move\":{\"name\":\"psychic\",\"url\":\"https://pokeapi.co/api/v2/move/94/\"}},".repeat(200)
+                + "{}]}";
+        Pokemon mewtwo = createPokemon("mewtwo", 20, 1220, 306);
+        mewtwo.setPokeApiId(150);
+        mewtwo.setRawJson(rawJson);
+        pokemonRepository.upsertAll(List.of(mewtwo));
+
+        byte[] stored = jdbcTemplate.queryForObject(
+                "SELECT raw_json FROM pokemons WHERE poke_api_id = 150", byte[].class);
+        assertTrue(stored.length < rawJson.length() / 10);
+        assertEquals(rawJson, GzipJsonConverter.gunzip(stored));
+
+        String loaded = transactionTemplate.execute(status ->
+                pokemonRepository.findByPokeApiId(150).orElseThrow().getRawJson());
+        assertEquals(rawJson, loaded);
+    }
+
+    @Test
+    void upsertAll_shouldCompressReceivedBytes_asTheyAre() {
+        byte[] received = "{\"id\":151,\"name\":\"mew\",\"flavor\":\"pok\u00e9mon\"}".getBytes(StandardCharsets.UTF_8);
+        Pokemon mew = createPokemon(151, "mew", 4, 40, 270);
+        mew.setRawJsonBytes(received);
+        pokemonRepository.upsertAll(List.of(mew));
+
+        byte[] stored = jdbcTemplate.queryForObject(
+                "SELECT raw_json FROM pokemons WHERE poke_api_id = 151", byte[].class);
+        assertEquals(new String(received, StandardCharsets.UTF_8), GzipJsonConverter.gunzip(stored));
+    }
+
+    @Test
+    void refreshLeaderboards_shouldRankEveryPokemonByEachStat() {
+        List<Integer> speed = jdbcTemplate.queryForList(
+                "SELECT poke_api_id FROM pokemon_leaderboard WHERE ranking = 'SPEED' ORDER BY rank", Integer.class);
+        List<Integer> ranks = jdbcTemplate.queryForList(
+                "SELECT rank FROM pokemon_leaderboard WHERE ranking = 'WEIGHT' ORDER BY rank", Integer.class);
+
+        assertEquals(List.of(6, 25, 3, 9, 143), speed);
+        assertEquals(List.of(1, 2, 3, 4, 5), ranks);
+        assertEquals(9 * 5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pokemon_leaderboard", Integer.class));
+    }
+
+    @Test
+    void refreshLeaderboards_shouldReplacePreviousRanks() throws Exception {
+        Pokemon pikachu = pokemonRepository.findByPokeApiId(25).orElseThrow();
+        pikachu.setWeight(9999);
+        pokemonRepository.save(pikachu);
+
+        // Until the next refresh the leaderboard still serves the old ranks
+        assertEquals("snorlax", pokemonRepository.findLeaderboard("WEIGHT", 1).get(0).getName());
+
+        pokemonRepository.refreshLeaderboards();
+
+        mockMvc.perform(get("/pokemon/heaviest")
+                        .param("numPokemon", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("pikachu")))
+                .andExpect(jsonPath("$[1].name", is("snorlax")));
+    }
+
+    @Test
+    void scheduledTasks_shouldRunOnVirtualThreads() throws Exception {
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+
+        taskScheduler.schedule(() -> virtual.complete(Thread.currentThread().isVirtual()), Instant.now());
+
+        assertTrue(virtual.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void virtualThreadPinning_shouldBeExposedAsMetric() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/jvm.threads.virtual.pinned"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("jvm.threads.virtual.pinned")));
+    }
+
+    private void awaitSyncJobFinished(String location) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            String status = mockMvc.perform(get(location))
+                    .andReturn().getResponse().getContentAsString();
+            if (!status.contains("\"RUNNING\"")) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Sync job " + location + " did not finish");
+    }
+
+    private Pokemon withSpeedAndTypes(Pokemon pokemon, Integer speed, String... types) {
+        pokemon.setSpeed(speed);
+        for (int i = 0; i < types.length; i++) {
+            pokemon.getTypes().add(new PokemonTypeSlot(i + 1, types[i]));
+        }
+        return pokemon;
+    }
+
+    private Pokemon createPokemon(Integer pokeApiId, String name, Integer height, Integer weight, Integer baseExperience) {
+        Pokemon pokemon = createPokemon(name, height, weight, baseExperience);
+        pokemon.setPokeApiId(pokeApiId);
+        return pokemon;
     }
 
     private Pokemon createPokemon(String name, Integer height, Integer weight, Integer baseExperience) {
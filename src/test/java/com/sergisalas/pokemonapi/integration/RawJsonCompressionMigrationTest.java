@@ -0,0 +1,37 @@
+package com.sergisalas.pokemonapi.integration;
+
+import com.sergisalas.pokemonapi.domain.GzipJsonConverter;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawJsonCompressionMigrationTest {
+
+    @Test
+    void migrate_shouldCompressRawJsonOfExistingRows() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:raw-json-migration;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        FluentConfiguration flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2", "classpath:db/migration/common");
+
+        // Given: a database still on the uncompressed schema
+        flyway.target("1").load().migrate();
+        String rawJson = "{\"id\":25,\"name\":\"pikachu\"}";
+        jdbcTemplate.update("INSERT INTO pokemons (id, poke_api_id, name, raw_json) VALUES ('a', 25, 'pikachu', ?)", rawJson);
+        jdbcTemplate.update("INSERT INTO pokemons (id, poke_api_id, name, raw_json) VALUES ('b', 6, 'charizard', NULL)");
+
+        // When
+        flyway.target("latest").load().migrate();
+
+        // Then
+        byte[] compressed = jdbcTemplate.queryForObject("SELECT raw_json FROM pokemons WHERE id = 'a'", byte[].class);
+        assertEquals(rawJson, GzipJsonConverter.gunzip(compressed));
+        assertNull(jdbcTemplate.queryForObject("SELECT raw_json FROM pokemons WHERE id = 'b'", byte[].class));
+    }
+}
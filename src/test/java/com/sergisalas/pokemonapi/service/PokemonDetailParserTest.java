@@ -0,0 +1,103 @@
+package com.sergisalas.pokemonapi.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.sergisalas.pokemonapi.service.dto.PokemonDetailResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PokemonDetailParserTest {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    void parse_shouldReadTopLevelFields_andIgnoreNestedOnes() throws Exception {
+        // Given
+        byte[] json = """
+                {
+                  "abilities": [{"ability": {"name": "static", "url": "https://pokeapi.co/api/v2/ability/9/"}}],
+                  "base_experience": 112,
+                  "forms": [{"name": "pikachu-form"}],
+                  "height": 4,
+                  "id": 25,
+                  "moves": [{"move": {"name": "mega-punch"}, "version_group_details": [{"level_learned_at": 0}]}],
+                  "name": "pikachu",
+                  "species": {"name": "pikachu-species", "id": 999},
+                  "weight": 60
+                }
+                """.getBytes(StandardCharsets.UTF_8);
+
+        // When
+        PokemonDetailResponse detail = PokemonDetailParser.parse(jsonFactory, json);
+
+        // Then
+        assertEquals(25, detail.getId());
+        assertEquals("pikachu", detail.getName());
+        assertEquals(4, detail.getHeight());
+        assertEquals(60, detail.getWeight());
+        assertEquals(112, detail.getBase_experience());
+    }
+
+    @Test
+    void parse_shouldReadStatsTypesAndAbilities() throws Exception {
+        // Given
+        byte[] json = """
+                {
+                  "abilities": [
+                    {"ability": {"name": "overgrow", "url": "https://pokeapi.co/api/v2/ability/65/"}, "is_hidden": false, "slot": 1},
+                    {"ability": {"name": "chlorophyll", "url": "https://pokeapi.co/api/v2/ability/34/"}, "is_hidden": true, "slot": 3}
+                  ],
+                  "id": 3,
+                  "stats": [
+                    {"base_stat": 80, "effort": 0, "stat": {"name": "hp", "url": "https://pokeapi.co/api/v2/stat/1/"}},
+                    {"base_stat": 100, "effort": 2, "stat": {"name": "special-attack", "url": "https://pokeapi.co/api/v2/stat/4/"}}
+                  ],
+                  "types": [
+                    {"slot": 1, "type": {"name": "grass", "url": "https://pokeapi.co/api/v2/type/12/"}},
+                    null,
+                    {"slot": 2, "type": {"name": "poison", "url": "https://pokeapi.co/api/v2/type/4/"}}
+                  ],
+                  "name": "venusaur"
+                }
+                """.getBytes(StandardCharsets.UTF_8);
+
+        // When
+        PokemonDetailResponse detail = PokemonDetailParser.parse(jsonFactory, json);
+
+        // Then
+        assertEquals("venusaur", detail.getName());
+        assertEquals(80, detail.baseStat("hp"));
+        assertEquals(100, detail.baseStat("special-attack"));
+        assertNull(detail.baseStat("speed"));
+        assertEquals(List.of("grass", "poison"), detail.getTypes().stream().map(t -> t.getType().getName()).toList());
+        assertEquals(2, detail.getTypes().get(1).getSlot());
+        assertEquals("chlorophyll", detail.getAbilities().get(1).getAbility().getName());
+        assertTrue(detail.getAbilities().get(1).getIs_hidden());
+        assertFalse(detail.getAbilities().get(0).getIs_hidden());
+    }
+
+    @Test
+    void parse_shouldKeepNull_whenBaseExperienceIsNull() throws Exception {
+        // Given
+        byte[] json = "{\"id\":10001,\"name\":\"deoxys-attack\",\"base_experience\":null,\"height\":17,\"weight\":608}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        // When
+        PokemonDetailResponse detail = PokemonDetailParser.parse(jsonFactory, json);
+
+        // Then
+        assertNull(detail.getBase_experience());
+        assertEquals(608, detail.getWeight());
+    }
+
+    @Test
+    void parse_shouldThrow_whenDocumentIsNotAnObject() {
+        byte[] json = "[]".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IOException.class, () -> PokemonDetailParser.parse(jsonFactory, json));
+    }
+}
@@ -0,0 +1,136 @@
+package com.sergisalas.pokemonapi.service;
+
+import com.sergisalas.pokemonapi.persistence.PokemonRepository;
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PokemonRankingIndexTest {
+
+    @Mock
+    private PokemonRepository pokemonRepository;
+
+    @InjectMocks
+    private PokemonRankingIndex pokemonRankingIndex;
+
+    @Test
+    void top_shouldBeEmpty_beforeIndexIsBuilt() {
+        assertTrue(pokemonRankingIndex.top(PokemonRanking.WEIGHT, 5).isEmpty());
+    }
+
+    @Test
+    void top_shouldBeEmpty_whenDatabaseIsEmpty() {
+        // Given
+        when(pokemonRepository.findAllRankingRows()).thenReturn(List.of());
+
+        // When
+        pokemonRankingIndex.rebuild();
+
+        // Then
+        assertTrue(pokemonRankingIndex.top(PokemonRanking.WEIGHT, 5).isEmpty());
+    }
+
+    @Test
+    void top_shouldReturnPokemonSortedByEachStat() {
+        // Given
+        when(pokemonRepository.findAllRankingRows()).thenReturn(List.of(
+                new PokemonDto(25, "pikachu", 60, 4, 112),
+                new PokemonDto(6, "charizard", 905, 17, 240),
+                new PokemonDto(143, "snorlax", 4600, 21, 189),
+                new PokemonDto(132, "ditto", 40, 3, null)
+        ));
+
+        // When
+        pokemonRankingIndex.rebuild();
+
+        // Then
+        assertEquals(List.of("snorlax", "charizard"), names(pokemonRankingIndex.top(PokemonRanking.WEIGHT, 2)));
+        assertEquals(List.of("snorlax", "charizard", "pikachu", "ditto"),
+                names(pokemonRankingIndex.top(PokemonRanking.HEIGHT, 10)));
+        assertEquals(List.of("charizard", "snorlax", "pikachu", "ditto"),
+                names(pokemonRankingIndex.top(PokemonRanking.BASE_EXPERIENCE, 4)));
+    }
+
+    @Test
+    void top_shouldBreakTiesByPokeApiIdDescending_likeTheDatabase() {
+        // Given
+        pokemonRankingIndex.load(List.of(
+                new PokemonDto(39, "jigglypuff", 55, 5, 95),
+                new PokemonDto(143, "snorlax", 4600, 21, 189),
+                new PokemonDto(120, "staryu", 345, 8, 68),
+                new PokemonDto(7, "squirtle", 90, 5, 63),
+                new PokemonDto(35, "clefairy", 75, 6, 113),
+                new PokemonDto(121, "starmie", 800, 11, 182)
+        ));
+
+        // When
+        List<Integer> byHeight = pokemonRankingIndex.top(PokemonRanking.HEIGHT, 6).orElseThrow().stream()
+                .map(PokemonDto::getPokeApiId)
+                .toList();
+
+        // Then
+        assertEquals(List.of(143, 121, 120, 35, 39, 7), byHeight);
+    }
+
+    @Test
+    void onSyncCompleted_shouldKeepLargerIndex_afterPartialSync() {
+        // Given
+        pokemonRankingIndex.load(List.of(
+                new PokemonDto(25, "pikachu", 60, 4, 112),
+                new PokemonDto(143, "snorlax", 4600, 21, 189)));
+        when(pokemonRepository.findAllRankingRows()).thenReturn(List.of(new PokemonDto(25, "pikachu", 60, 4, 112)));
+
+        // When
+        pokemonRankingIndex.onSyncCompleted(new PokemonSyncCompletedEvent(Instant.now(), 1, 0, false));
+
+        // Then
+        assertEquals(List.of("snorlax", "pikachu"), names(pokemonRankingIndex.top(PokemonRanking.WEIGHT, 5)));
+    }
+
+    @Test
+    void onSyncCompleted_shouldReplaceIndex_afterCompleteSync() {
+        // Given
+        pokemonRankingIndex.load(List.of(
+                new PokemonDto(25, "pikachu", 60, 4, 112),
+                new PokemonDto(143, "snorlax", 4600, 21, 189)));
+        when(pokemonRepository.findAllRankingRows()).thenReturn(List.of(new PokemonDto(25, "pikachu", 60, 4, 112)));
+
+        // When
+        pokemonRankingIndex.onSyncCompleted(new PokemonSyncCompletedEvent(Instant.now(), 1, 0, true));
+
+        // Then
+        assertEquals(List.of("pikachu"), names(pokemonRankingIndex.top(PokemonRanking.WEIGHT, 5)));
+    }
+
+    @Test
+    void find_shouldMatchIdsAndNames_orderedById() {
+        // Given
+        pokemonRankingIndex.load(List.of(
+                new PokemonDto(25, "pikachu", 60, 4, 112),
+                new PokemonDto(6, "charizard", 905, 17, 240),
+                new PokemonDto(143, "Snorlax", 4600, 21, 189)
+        ));
+
+        // When
+        Optional<List<PokemonDto>> found = pokemonRankingIndex.find(List.of(143, 25, 999), List.of("snorlax", "mew"));
+
+        // Then
+        assertEquals(List.of("pikachu", "Snorlax"), names(found));
+        verifyNoInteractions(pokemonRepository);
+    }
+
+    private List<String> names(Optional<List<PokemonDto>> pokemons) {
+        return pokemons.orElseThrow().stream().map(PokemonDto::getName).toList();
+    }
+}
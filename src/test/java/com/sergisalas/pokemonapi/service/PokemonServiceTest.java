@@ -1,21 +1,38 @@
 package com.sergisalas.pokemonapi.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sergisalas.pokemonapi.domain.Pokemon;
 import com.sergisalas.pokemonapi.persistence.PokemonRepository;
+import com.sergisalas.pokemonapi.persistence.PokemonTopQuery;
+import com.sergisalas.pokemonapi.service.dto.PokemonBatchDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonBatchRequest;
 import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonPageDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,7 +42,16 @@ class PokemonServiceTest {
     private PokemonRepository pokemonRepository;
 
     @Mock
-    private PokemonSyncService pokemonSyncService;
+    private SyncJobService syncJobService;
+
+    @Mock
+    private PokemonRankingIndex pokemonRankingIndex;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @InjectMocks
     private PokemonService pokemonService;
@@ -35,6 +61,9 @@ class PokemonServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(pokemonService, "maxResults", 100);
+        ReflectionTestUtils.setField(pokemonService, "batchMaxSize", 3);
+
         pokemon1 = new Pokemon();
         pokemon1.setId("1");
         pokemon1.setName("Pikachu");
@@ -54,8 +83,8 @@ class PokemonServiceTest {
     void getHeaviestPokemon_shouldReturnPokemonList() {
         // Given
         int numPokemon = 2;
-        List<Pokemon> mockPokemons = Arrays.asList(pokemon2, pokemon1);
-        when(pokemonRepository.findTopPokemonByWeight(PageRequest.of(0, numPokemon)))
+        List<PokemonDto> mockPokemons = Arrays.asList(new PokemonDto(pokemon2), new PokemonDto(pokemon1));
+        when(pokemonRepository.findLeaderboard("WEIGHT", numPokemon))
                 .thenReturn(mockPokemons);
 
         // When
@@ -64,13 +93,43 @@ class PokemonServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(pokemonRepository, times(1)).findTopPokemonByWeight(any(PageRequest.class));
+        verify(pokemonRepository, times(1)).findLeaderboard(eq("WEIGHT"), anyInt());
+    }
+
+    @Test
+    void getHeaviestPokemon_shouldUseRankingIndex_whenIndexIsBuilt() {
+        // Given
+        List<PokemonDto> indexed = List.of(new PokemonDto(pokemon2), new PokemonDto(pokemon1));
+        when(pokemonRankingIndex.top(PokemonRanking.WEIGHT, 2)).thenReturn(Optional.of(indexed));
+
+        // When
+        List<PokemonDto> result = pokemonService.getHeaviestPokemon(2);
+
+        // Then
+        assertEquals(indexed, result);
+        verify(pokemonRepository, never()).findLeaderboard(eq("WEIGHT"), anyInt());
+    }
+
+    @Test
+    void getHeaviestPokemon_shouldRecordQueryTimer_taggedWithSource() {
+        // Given
+        when(pokemonRepository.findLeaderboard("WEIGHT", 2))
+                .thenReturn(List.of(new PokemonDto(pokemon2), new PokemonDto(pokemon1)));
+
+        // When
+        pokemonService.getHeaviestPokemon(2);
+
+        // Then
+        assertEquals(1, meterRegistry.get("pokemon.rankings.query")
+                .tag("ranking", "WEIGHT")
+                .tag("source", "database")
+                .timer().count());
     }
 
     @Test
     void getHeaviestPokemon_shouldThrowException_whenRepositoryFails() {
         // Given
-        when(pokemonRepository.findTopPokemonByWeight(any(PageRequest.class)))
+        when(pokemonRepository.findLeaderboard(eq("WEIGHT"), anyInt()))
                 .thenThrow(new RuntimeException("Database error"));
 
         // When & Then
@@ -81,8 +140,8 @@ class PokemonServiceTest {
     void getHighestPokemon_shouldReturnPokemonList() {
         // Given
         int numPokemon = 2;
-        List<Pokemon> mockPokemons = Arrays.asList(pokemon2, pokemon1);
-        when(pokemonRepository.findTopPokemonByHeight(PageRequest.of(0, numPokemon)))
+        List<PokemonDto> mockPokemons = Arrays.asList(new PokemonDto(pokemon2), new PokemonDto(pokemon1));
+        when(pokemonRepository.findLeaderboard("HEIGHT", numPokemon))
                 .thenReturn(mockPokemons);
 
         // When
@@ -91,13 +150,13 @@ class PokemonServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(pokemonRepository, times(1)).findTopPokemonByHeight(any(PageRequest.class));
+        verify(pokemonRepository, times(1)).findLeaderboard(eq("HEIGHT"), anyInt());
     }
 
     @Test
     void getHighestPokemon_shouldThrowException_whenRepositoryFails() {
         // Given
-        when(pokemonRepository.findTopPokemonByHeight(any(PageRequest.class)))
+        when(pokemonRepository.findLeaderboard(eq("HEIGHT"), anyInt()))
                 .thenThrow(new RuntimeException("Database error"));
 
         // When & Then
@@ -108,8 +167,8 @@ class PokemonServiceTest {
     void getHighestExperiencesPokemon_shouldReturnPokemonList() {
         // Given
         int numPokemon = 2;
-        List<Pokemon> mockPokemons = Arrays.asList(pokemon2, pokemon1);
-        when(pokemonRepository.findTopPokemonByBaseExperience(PageRequest.of(0, numPokemon)))
+        List<PokemonDto> mockPokemons = Arrays.asList(new PokemonDto(pokemon2), new PokemonDto(pokemon1));
+        when(pokemonRepository.findLeaderboard("BASE_EXPERIENCE", numPokemon))
                 .thenReturn(mockPokemons);
 
         // When
@@ -118,13 +177,13 @@ class PokemonServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(pokemonRepository, times(1)).findTopPokemonByBaseExperience(any(PageRequest.class));
+        verify(pokemonRepository, times(1)).findLeaderboard(eq("BASE_EXPERIENCE"), anyInt());
     }
 
     @Test
     void getHighestExperiencesPokemon_shouldThrowException_whenRepositoryFails() {
         // Given
-        when(pokemonRepository.findTopPokemonByBaseExperience(any(PageRequest.class)))
+        when(pokemonRepository.findLeaderboard(eq("BASE_EXPERIENCE"), anyInt()))
                 .thenThrow(new RuntimeException("Database error"));
 
         // When & Then
@@ -132,24 +191,209 @@ class PokemonServiceTest {
     }
 
     @Test
-    void syncDataBase_shouldCallSyncService() throws Exception {
+    void getTopPokemon_shouldReturnNextCursor_whenMoreRowsExist() {
+        // Given
+        pokemon1.setPokeApiId(25);
+        pokemon2.setPokeApiId(6);
+        when(pokemonRepository.findTop(any(PokemonTopQuery.class)))
+                .thenReturn(List.of(new PokemonDto(pokemon2), new PokemonDto(pokemon1)));
+
+        // When
+        PokemonPageDto page = pokemonService.getTopPokemon("weight", "desc", 1, null, null, null, null);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertEquals("Charizard", page.getItems().get(0).getName());
+        assertEquals(new RankingCursor(PokemonRanking.WEIGHT, 905, 6), RankingCursor.decode(page.getNext(), PokemonRanking.WEIGHT));
+        verify(pokemonRepository).findTop(new PokemonTopQuery("weight", Sort.Direction.DESC, 2, null, null, null, null, null));
+    }
+
+    @Test
+    void getTopPokemon_shouldNeverReadTheLeaderboard_evenForAnUnfilteredFirstPage() {
+        // Given
+        pokemon2.setPokeApiId(6);
+        when(pokemonRepository.findTop(any(PokemonTopQuery.class))).thenReturn(List.of(new PokemonDto(pokemon2)));
+
+        // When
+        PokemonPageDto page = pokemonService.getTopPokemon("weight", "desc", 2, null, null, null, null);
+
+        // Then
+        assertEquals(List.of("Charizard"), page.getItems().stream().map(PokemonDto::getName).toList());
+        verify(pokemonRepository, never()).findLeaderboard(anyString(), anyInt());
+    }
+
+    @Test
+    void getTopPokemon_shouldSeekAfterCursor_withinBoundsAndType() {
         // Given
-        doNothing().when(pokemonSyncService).syncAllPokemons();
+        String after = new RankingCursor(PokemonRanking.HEIGHT, 17, 6).encode();
+        when(pokemonRepository.findTop(any(PokemonTopQuery.class))).thenReturn(List.of(new PokemonDto(pokemon1)));
 
         // When
-        pokemonService.syncDataBase();
+        PokemonPageDto page = pokemonService.getTopPokemon("height", "asc", 5, after, 1, 100, " Fire");
 
         // Then
-        verify(pokemonSyncService, times(1)).syncAllPokemons();
+        assertNull(page.getNext());
+        verify(pokemonRepository).findTop(new PokemonTopQuery("height", Sort.Direction.ASC, 6, 1, 100, "fire", 17, 6));
+        verify(pokemonRepository, never()).findLeaderboard(anyString(), anyInt());
     }
 
     @Test
-    void syncDataBase_shouldThrowException_whenSyncFails() throws Exception {
+    void getTopPokemon_shouldThrowIllegalArgument_whenCursorBelongsToAnotherStat() {
         // Given
-        doThrow(new RuntimeException("Sync error")).when(pokemonSyncService).syncAllPokemons();
+        String after = new RankingCursor(PokemonRanking.HEIGHT, 17, 6).encode();
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> pokemonService.getTopPokemon("weight", "desc", 5, after, null, null, null));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        verify(pokemonRepository, never()).findTop(any());
+    }
+
+    @Test
+    void checkTopRequest_shouldRejectInvalidParameters_withoutQuerying() {
+        String after = new RankingCursor(PokemonRanking.HEIGHT, 17, 6).encode();
+
+        assertInstanceOf(IllegalArgumentException.class, assertThrows(RuntimeException.class,
+                () -> pokemonService.checkTopRequest("weight", "desc", 5, after)).getCause());
+        assertInstanceOf(IllegalArgumentException.class, assertThrows(RuntimeException.class,
+                () -> pokemonService.checkTopRequest("weight", "sideways", 5, null)).getCause());
+        assertInstanceOf(IllegalArgumentException.class, assertThrows(RuntimeException.class,
+                () -> pokemonService.checkTopRequest("weight", "desc", 101, null)).getCause());
+        assertDoesNotThrow(() -> pokemonService.checkTopRequest("height", "asc", 5, after));
+        verifyNoInteractions(pokemonRepository, pokemonRankingIndex);
+    }
+
+    @Test
+    void getTopPokemon_shouldThrowIllegalArgument_whenStatIsUnknown() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> pokemonService.getTopPokemon("luck", "desc", 5, null, null, null, null));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    void getHeaviestPokemon_shouldThrowIllegalArgument_whenAboveMaxResults() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> pokemonService.getHeaviestPokemon(101));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        verifyNoInteractions(pokemonRepository, pokemonRankingIndex);
+    }
+
+    @Test
+    void getTopPokemon_shouldThrowIllegalArgument_whenAboveMaxResults() {
+        // Given
+        ReflectionTestUtils.setField(pokemonService, "maxResults", 10);
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> pokemonService.getTopPokemon("weight", "desc", 11, null, null, null, null));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        verify(pokemonRepository, never()).findTop(any());
+    }
+
+    @Test
+    void writeExport_shouldWriteOneJsonLinePerPokemon() throws Exception {
+        // Given
+        RankingExport export = pokemonService.exportRanking("weight", "desc", 1);
+        when(pokemonRepository.streamRankingRows(any(Sort.class)))
+                .thenReturn(Stream.of(new PokemonDto(pokemon2), new PokemonDto(pokemon1)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        pokemonService.writeExport(export, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"Charizard\""));
+        verify(pokemonRepository).streamRankingRows(Sort.by(
+                new Sort.Order(Sort.Direction.DESC, "weight").nullsLast(),
+                new Sort.Order(Sort.Direction.DESC, "pokeApiId")));
+    }
+
+    @Test
+    void exportRanking_shouldThrowIllegalArgument_whenLimitIsNotPositive() {
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> pokemonService.exportRanking("weight", "desc", 0));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    void getBatch_shouldQueryOnceAndReportMissing() {
+        // Given
+        PokemonBatchRequest request = new PokemonBatchRequest(List.of(2, 2, 7), List.of(" Pikachu "), false);
+        PokemonDto charizard = new PokemonDto(pokemon2);
+        charizard.setPokeApiId(2);
+        when(pokemonRepository.findBatch(any(), any())).thenReturn(List.of(charizard));
+
+        // When
+        PokemonBatchDto result = pokemonService.getBatch(request);
+
+        // Then
+        assertEquals(List.of(charizard), result.getItems());
+        assertEquals(List.of(7), result.getMissingIds());
+        assertEquals(List.of("pikachu"), result.getMissingNames());
+        verify(pokemonRepository).findBatch(Set.of(2, 7), Set.of("pikachu"));
+        verify(pokemonRepository, never()).findBatchWithRawJson(any(), any());
+    }
+
+    @Test
+    void getBatch_shouldUseIndex_whenBuilt() {
+        // Given
+        PokemonDto pikachu = new PokemonDto(25, "pikachu", 60, 4, 112);
+        when(pokemonRankingIndex.find(Set.of(25), Set.of("mew"))).thenReturn(Optional.of(List.of(pikachu)));
+
+        // When
+        PokemonBatchDto result = pokemonService.getBatch(new PokemonBatchRequest(List.of(25), List.of("Mew"), false));
+
+        // Then
+        assertEquals(List.of(pikachu), result.getItems());
+        assertEquals(List.of("mew"), result.getMissingNames());
+        verifyNoInteractions(pokemonRepository);
+    }
+
+    @Test
+    void getBatch_shouldReadRawJson_onlyWhenRequested() {
+        // Given
+        PokemonBatchRequest request = new PokemonBatchRequest(List.of(1), null, true);
+        when(pokemonRepository.findBatchWithRawJson(any(), any())).thenReturn(List.of());
+
+        // When
+        pokemonService.getBatch(request);
+
+        // Then
+        verify(pokemonRepository).findBatchWithRawJson(Set.of(1), Set.of());
+        verify(pokemonRepository, never()).findBatch(any(), any());
+    }
+
+    @Test
+    void getBatch_shouldThrowIllegalArgument_whenAboveBatchMaxSize() {
+        PokemonBatchRequest request = new PokemonBatchRequest(List.of(1, 2, 3), List.of("mew"), false);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> pokemonService.getBatch(request));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        verifyNoInteractions(pokemonRepository);
+    }
+
+    @Test
+    void syncDataBase_shouldStartOrJoinSyncJob() {
+        // Given
+        SyncJob job = new SyncJob("job-1", Instant.now());
+        when(syncJobService.startOrJoin()).thenReturn(job);
+
+        // When
+        SyncJob result = pokemonService.syncDataBase();
+
+        // Then
+        assertSame(job, result);
+        verify(syncJobService, times(1)).startOrJoin();
+    }
+
+    @Test
+    void syncDataBase_shouldThrowException_whenSyncFails() {
+        // Given
+        when(syncJobService.startOrJoin()).thenThrow(new RuntimeException("Sync error"));
 
         // When & Then
         assertThrows(RuntimeException.class, () -> pokemonService.syncDataBase());
     }
 }
-
@@ -0,0 +1,144 @@
+package com.sergisalas.pokemonapi.service;
+
+import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PokemonSnapshotFileTest {
+
+    @Mock
+    private PokemonRankingIndex pokemonRankingIndex;
+
+    @Mock
+    private SyncJobService syncJobService;
+
+    @Mock
+    private DatasetVersion datasetVersion;
+
+    @InjectMocks
+    private PokemonSnapshotFile pokemonSnapshotFile;
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("snapshots/pokemon-snapshot.bin");
+        ReflectionTestUtils.setField(pokemonSnapshotFile, "path", file.toString());
+        ReflectionTestUtils.setField(pokemonSnapshotFile, "syncOnStartup", true);
+    }
+
+    @Test
+    void write_thenRead_shouldRoundTripEveryField() throws Exception {
+        // Given
+        PokemonDto charizard = new PokemonDto(6, "charizard", 905, 17, 240, 78, 84, 78, 109, 85, 100);
+        PokemonDto flabebe = new PokemonDto(669, "flabébé", 1, 1, null, 44, null, 39, 61, 79, 42);
+        PokemonDto unnamed = new PokemonDto(null, null, null, null, null);
+        Instant writtenAt = Instant.parse("2026-01-01T00:00:00Z");
+
+        // When
+        PokemonSnapshotFile.write(file, List.of(charizard, flabebe, unnamed), writtenAt);
+        PokemonSnapshotFile.Snapshot snapshot = PokemonSnapshotFile.read(file);
+
+        // Then
+        assertEquals(writtenAt, snapshot.writtenAt());
+        assertEquals(List.of(charizard, flabebe, unnamed), snapshot.pokemons());
+        assertFalse(Files.exists(file.resolveSibling("pokemon-snapshot.bin.tmp")));
+    }
+
+    @Test
+    void loadOnStartup_shouldSeedIndexAndSyncInBackground_whenDatabaseIsEmpty() throws Exception {
+        // Given
+        List<PokemonDto> pokemons = List.of(new PokemonDto(25, "pikachu", 60, 4, 112));
+        Instant writtenAt = Instant.parse("2026-01-01T00:00:00Z");
+        PokemonSnapshotFile.write(file, pokemons, writtenAt);
+        when(pokemonRankingIndex.isBuilt()).thenReturn(false);
+
+        // When
+        pokemonSnapshotFile.loadOnStartup();
+
+        // Then
+        verify(pokemonRankingIndex).load(pokemons);
+        verify(datasetVersion).seed(writtenAt);
+        verify(syncJobService).startOrJoin();
+    }
+
+    @Test
+    void loadOnStartup_shouldKeepDatabaseIndex_whenAlreadyBuilt() throws Exception {
+        // Given
+        PokemonSnapshotFile.write(file, List.of(new PokemonDto(25, "pikachu", 60, 4, 112)), Instant.now());
+        when(pokemonRankingIndex.isBuilt()).thenReturn(true);
+
+        // When
+        pokemonSnapshotFile.loadOnStartup();
+
+        // Then
+        verify(pokemonRankingIndex, never()).load(anyList());
+        verifyNoInteractions(syncJobService);
+    }
+
+    @Test
+    void loadOnStartup_shouldIgnoreCorruptFile() throws Exception {
+        // Given
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24});
+        when(pokemonRankingIndex.isBuilt()).thenReturn(false);
+
+        // When
+        pokemonSnapshotFile.loadOnStartup();
+
+        // Then
+        verify(pokemonRankingIndex, never()).load(anyList());
+        verifyNoInteractions(syncJobService);
+    }
+
+    @Test
+    void writeAfterSync_shouldWriteCurrentIndex_stampedWithSyncTime() throws Exception {
+        // Given
+        List<PokemonDto> pokemons = List.of(new PokemonDto(143, "snorlax", 4600, 21, 189));
+        Instant syncedAt = Instant.parse("2026-03-01T12:00:00Z");
+        when(pokemonRankingIndex.all()).thenReturn(pokemons);
+
+        // When
+        pokemonSnapshotFile.writeAfterSync(new PokemonSyncCompletedEvent(syncedAt, 1, 0, true));
+
+        // Then
+        PokemonSnapshotFile.Snapshot snapshot = PokemonSnapshotFile.read(file);
+        assertEquals(pokemons, snapshot.pokemons());
+        assertEquals(syncedAt, snapshot.writtenAt());
+    }
+
+    @Test
+    void writeAfterSync_shouldKeepPreviousSnapshot_afterPartialSync() throws Exception {
+        // Given
+        List<PokemonDto> complete = List.of(
+                new PokemonDto(143, "snorlax", 4600, 21, 189),
+                new PokemonDto(25, "pikachu", 60, 4, 112));
+        PokemonSnapshotFile.write(file, complete, Instant.parse("2026-01-01T00:00:00Z"));
+        when(pokemonRankingIndex.all()).thenReturn(List.of(new PokemonDto(25, "pikachu", 60, 4, 112)));
+
+        // When
+        pokemonSnapshotFile.writeAfterSync(new PokemonSyncCompletedEvent(Instant.now(), 1, 0, false));
+
+        // Then
+        assertEquals(complete, PokemonSnapshotFile.read(file).pokemons());
+    }
+}
@@ -1,19 +1,35 @@
 package com.sergisalas.pokemonapi.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sergisalas.pokemonapi.config.CircuitBreakerOpenException;
+import com.sergisalas.pokemonapi.domain.Pokemon;
+import com.sergisalas.pokemonapi.domain.PokemonAbilitySlot;
+import com.sergisalas.pokemonapi.domain.PokemonTypeSlot;
 import com.sergisalas.pokemonapi.persistence.PokemonRepository;
-import com.sergisalas.pokemonapi.service.dto.PokemonDetailResponse;
+import com.sergisalas.pokemonapi.persistence.PokemonSyncState;
 import com.sergisalas.pokemonapi.service.dto.PokemonListResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,7 +42,7 @@ class PokemonSyncServiceTest {
     private RestClient restClient;
 
     @Mock
-    private RestClient.RequestHeadersUriSpec requestHeadersUriSpec;
+    private RequestSpec requestHeadersUriSpec;
 
     @Mock
     private RestClient.ResponseSpec responseSpec;
@@ -34,19 +50,28 @@ class PokemonSyncServiceTest {
     @Mock
     private PokemonRepository pokemonRepository;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @Mock
-    private ObjectMapper objectMapper;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry;
 
     @InjectMocks
     private PokemonSyncService pokemonSyncService;
 
     private PokemonListResponse pokemonListResponse;
-    private PokemonDetailResponse detailResponse1;
-    private String detailJson1;
+    private byte[] detailJson1;
 
     @BeforeEach
     void setUp() throws Exception {
         ReflectionTestUtils.setField(pokemonSyncService, "POKEAPI_BASE_URL", "https://pokeapi.co/api/v2");
+        ReflectionTestUtils.setField(pokemonSyncService, "pageSize", 200);
+        ReflectionTestUtils.setField(pokemonSyncService, "parallelism", 4);
+        ReflectionTestUtils.setField(pokemonSyncService, "batchSize", 100);
+        ReflectionTestUtils.setField(pokemonSyncService, "incremental", true);
 
         PokemonListResponse.PokemonBasic pokemonBasic1 = new PokemonListResponse.PokemonBasic();
         pokemonBasic1.setName("pikachu");
@@ -60,76 +85,111 @@ class PokemonSyncServiceTest {
         pokemonListResponse.setCount(2);
         pokemonListResponse.setResults(Arrays.asList(pokemonBasic1, pokemonBasic2));
 
-        detailResponse1 = new PokemonDetailResponse();
-        detailResponse1.setId(25);
-        detailResponse1.setName("pikachu");
-        detailResponse1.setWeight(60);
-        detailResponse1.setHeight(4);
-        detailResponse1.setBase_experience(112);
-
-        detailJson1 = "{\"id\":25,\"name\":\"pikachu\"}";
+        detailJson1 = ("{\"abilities\":[{\"ability\":{\"name\":\"static\"}}],\"base_experience\":112,"
+                + "\"height\":4,\"id\":25,\"name\":\"pikachu\",\"weight\":60}").getBytes(StandardCharsets.UTF_8);
     }
 
     @Test
     void syncAllPokemons_shouldSyncSuccessfully() throws Exception {
         // Given
-        when(restClient.get()).thenReturn(requestHeadersUriSpec);
+        doReturn(requestHeadersUriSpec).when(restClient).get();
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
 
         when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
-        when(responseSpec.body(String.class)).thenReturn(detailJson1);
-
-        when(objectMapper.readValue(anyString(), eq(PokemonDetailResponse.class)))
-                .thenReturn(detailResponse1);
-
-        when(pokemonRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.ok(detailJson1));
 
         // When
         pokemonSyncService.syncAllPokemons();
 
         // Then
         verify(restClient, atLeastOnce()).get();
-        verify(pokemonRepository, times(1)).saveAll(anyList());
+        InOrder inOrder = inOrder(pokemonRepository, eventPublisher);
+        inOrder.verify(pokemonRepository, times(1)).upsertAll(anyList());
+        inOrder.verify(pokemonRepository, times(1)).refreshLeaderboards();
+        inOrder.verify(eventPublisher, times(1)).publishEvent(argThat(PokemonSyncCompletedEvent::complete));
     }
 
 
     @Test
     void syncAllPokemons_shouldThrowException_whenApiClientFails() {
         // Given
-        when(restClient.get()).thenReturn(requestHeadersUriSpec);
+        doReturn(requestHeadersUriSpec).when(restClient).get();
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.body(PokemonListResponse.class)).thenReturn(null);
 
         // When & Then
         assertThrows(RuntimeException.class, () -> pokemonSyncService.syncAllPokemons());
-        verify(pokemonRepository, never()).saveAll(anyList());
+        verify(pokemonRepository, never()).upsertAll(anyList());
+        verify(pokemonRepository, never()).refreshLeaderboards();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertEquals(1, meterRegistry.get("pokeapi.sync.duration").tag("outcome", "failure").timer().count());
     }
     @Test
     void syncAllPokemons_shouldContinue_whenOneDetailFails() throws Exception {
         // Given
-        when(restClient.get()).thenReturn(requestHeadersUriSpec);
+        doReturn(requestHeadersUriSpec).when(restClient).get();
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
 
         when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
 
-        when(responseSpec.body(String.class))
+        when(responseSpec.toEntity(byte[].class))
                 .thenThrow(new RuntimeException("Error al obtener detalle"))
-                .thenReturn(detailJson1);
+                .thenReturn(ResponseEntity.ok(detailJson1));
+
+        // When
+        pokemonSyncService.syncAllPokemons();
+
+        // Then
+        verify(pokemonRepository, times(1)).upsertAll(anyList());
+        verify(responseSpec, times(2)).toEntity(byte[].class);
+        assertEquals(1, meterRegistry.get("pokeapi.sync.fetch.failures").tag("cause", "RuntimeException").counter().count());
+        assertEquals(1, meterRegistry.get("pokeapi.sync.fetch").tag("outcome", "failed").timer().count());
+    }
+
+    @Test
+    void syncAllPokemons_shouldAbort_whenCircuitBreakerIsOpen() {
+        // Given
+        doReturn(requestHeadersUriSpec).when(restClient).get();
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
 
-        when(objectMapper.readValue(anyString(), eq(PokemonDetailResponse.class)))
-                .thenReturn(detailResponse1);
+        when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        when(responseSpec.toEntity(byte[].class)).thenThrow(new CircuitBreakerOpenException("open"));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> pokemonSyncService.syncAllPokemons());
+        assertInstanceOf(CircuitBreakerOpenException.class, exception.getCause());
+        verify(pokemonRepository, never()).upsertAll(anyList());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void syncAllPokemons_shouldRecordSyncMetrics() throws Exception {
+        // Given
+        doReturn(requestHeadersUriSpec).when(restClient).get();
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
 
-        when(pokemonRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+        when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        when(responseSpec.toEntity(byte[].class))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(), null, null))
+                .thenReturn(ResponseEntity.ok(detailJson1));
 
         // When
         pokemonSyncService.syncAllPokemons();
 
         // Then
-        verify(pokemonRepository, times(1)).saveAll(anyList());
-        verify(responseSpec, times(2)).body(String.class);
+        assertEquals(1, meterRegistry.get("pokeapi.sync.duration").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("pokeapi.sync.fetch").tag("outcome", "changed").timer().count());
+        assertEquals(1, meterRegistry.get("pokeapi.sync.fetch.failures").tag("cause", "http_404").counter().count());
+        assertEquals(1, meterRegistry.get("pokeapi.sync.rows").tag("operation", "upsert").counter().count());
     }
 
     @Test
@@ -138,49 +198,316 @@ class PokemonSyncServiceTest {
         PokemonListResponse emptyResponse = new PokemonListResponse();
         emptyResponse.setResults(null);
 
-        when(restClient.get()).thenReturn(requestHeadersUriSpec);
+        doReturn(requestHeadersUriSpec).when(restClient).get();
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.body(PokemonListResponse.class)).thenReturn(emptyResponse);
 
         // When & Then
         assertThrows(RuntimeException.class, () -> pokemonSyncService.syncAllPokemons());
-        verify(pokemonRepository, never()).saveAll(anyList());
+        verify(pokemonRepository, never()).upsertAll(anyList());
     }
 
     @Test
     void syncAllPokemons_shouldSaveAllPokemons_whenAllDetailsAreValid() throws Exception {
         // Given
-        String detailJson2 = "{\"id\":6,\"name\":\"charizard\"}";
-        PokemonDetailResponse detailResponse2 = new PokemonDetailResponse();
-        detailResponse2.setId(6);
-        detailResponse2.setName("charizard");
-        detailResponse2.setWeight(905);
-        detailResponse2.setHeight(17);
-        detailResponse2.setBase_experience(240);
-
-        when(restClient.get()).thenReturn(requestHeadersUriSpec);
+        byte[] detailJson2 = ("{\"id\":6,\"name\":\"charizard\",\"weight\":905,\"height\":17,\"base_experience\":240,"
+                + "\"stats\":[{\"base_stat\":78,\"stat\":{\"name\":\"hp\"}},{\"base_stat\":100,\"stat\":{\"name\":\"speed\"}}],"
+                + "\"types\":[{\"slot\":1,\"type\":{\"name\":\"fire\"}},{\"slot\":2,\"type\":{\"name\":\"flying\"}}],"
+                + "\"abilities\":[{\"ability\":{\"name\":\"solar-power\"},\"is_hidden\":true,\"slot\":3}]}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        doReturn(requestHeadersUriSpec).when(restClient).get();
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
 
         when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
-        when(responseSpec.body(String.class))
-                .thenReturn(detailJson1)
-                .thenReturn(detailJson2);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        when(responseSpec.toEntity(byte[].class))
+                .thenReturn(ResponseEntity.ok(detailJson1))
+                .thenReturn(ResponseEntity.ok(detailJson2));
+
+        // When
+        pokemonSyncService.syncAllPokemons();
+
+        // Then
+        verify(pokemonRepository, times(1)).upsertAll(argThat(list -> ((List<?>) list).stream()
+                .map(Pokemon.class::cast)
+                .anyMatch(p -> p.getPokeApiId() == 6 && "charizard".equals(p.getName())
+                        && p.getWeight() == 905 && p.getHeight() == 17 && p.getBaseExperience() == 240
+                        && p.getHp() == 78 && p.getSpeed() == 100 && p.getAttack() == null
+                        && p.getTypes().equals(List.of(new PokemonTypeSlot(1, "fire"), new PokemonTypeSlot(2, "flying")))
+                        && p.getAbilities().equals(List.of(new PokemonAbilitySlot(3, "solar-power", true))))));
+        verify(responseSpec, times(2)).toEntity(byte[].class);
+    }
+
+    @Test
+    void syncAllPokemons_shouldUpsertReceivedBytes_withoutDecodingThem() throws Exception {
+        // Given
+        pokemonListResponse.setResults(pokemonListResponse.getResults().subList(0, 1));
+        doReturn(requestHeadersUriSpec).when(restClient).get();
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.ok(detailJson1));
+
+        // When
+        pokemonSyncService.syncAllPokemons();
 
-        when(objectMapper.readValue(detailJson1, PokemonDetailResponse.class)).thenReturn(detailResponse1);
-        when(objectMapper.readValue(detailJson2, PokemonDetailResponse.class)).thenReturn(detailResponse2);
+        // Then
+        verify(pokemonRepository).upsertAll(argThat(list -> {
+            Pokemon pokemon = ((List<Pokemon>) list).get(0);
+            return pokemon.getRawJsonBytes() == detailJson1
+                    && new String(detailJson1, StandardCharsets.UTF_8).equals(pokemon.getRawJson());
+        }));
+    }
 
-        when(pokemonRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+    @Test
+    void syncAllPokemons_shouldFollowNextLinks_untilLastPage() throws Exception {
+        // Given
+        String secondPageUrl = "https://pokeapi.co/api/v2/pokemon?offset=2&limit=2";
+        pokemonListResponse.setCount(3);
+        pokemonListResponse.setNext(secondPageUrl);
+
+        PokemonListResponse.PokemonBasic mew = new PokemonListResponse.PokemonBasic();
+        mew.setName("mew");
+        mew.setUrl("https://pokeapi.co/api/v2/pokemon/151/");
+        PokemonListResponse secondPage = new PokemonListResponse();
+        secondPage.setCount(3);
+        secondPage.setResults(List.of(mew));
+
+        doReturn(requestHeadersUriSpec).when(restClient).get();
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(PokemonListResponse.class))
+                .thenReturn(pokemonListResponse)
+                .thenReturn(secondPage);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.ok(detailJson1));
 
         // When
         pokemonSyncService.syncAllPokemons();
 
         // Then
-        verify(pokemonRepository, times(1)).saveAll(anyList());
-        verify(responseSpec, times(2)).body(String.class);
+        verify(requestHeadersUriSpec).uri("https://pokeapi.co/api/v2/pokemon?limit=200");
+        verify(requestHeadersUriSpec).uri(secondPageUrl);
+        verify(responseSpec, times(2)).body(PokemonListResponse.class);
+        verify(responseSpec, times(3)).toEntity(byte[].class);
+        verify(pokemonRepository, times(1)).upsertAll(argThat(list -> ((List<?>) list).size() == 3));
     }
 
+    @Test
+    void syncAllPokemons_shouldNotExceedParallelism_whenFetchingDetails() throws Exception {
+        // Given
+        List<PokemonListResponse.PokemonBasic> basics = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            PokemonListResponse.PokemonBasic basic = new PokemonListResponse.PokemonBasic();
+            basic.setName("pokemon-" + i);
+            basic.setUrl("https://pokeapi.co/api/v2/pokemon/" + i + "/");
+            basics.add(basic);
+        }
+        pokemonListResponse.setResults(basics);
+        ReflectionTestUtils.setField(pokemonSyncService, "parallelism", 2);
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        doReturn(requestHeadersUriSpec).when(restClient).get();
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
 
-}
+        when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        when(responseSpec.toEntity(byte[].class)).thenAnswer(i -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            inFlight.decrementAndGet();
+            return ResponseEntity.ok(detailJson1);
+        });
+
+        // When
+        pokemonSyncService.syncAllPokemons();
+
+        // Then
+        assertTrue(maxInFlight.get() <= 2);
+        verify(responseSpec, times(20)).toEntity(byte[].class);
+        verify(pokemonRepository, times(1)).upsertAll(argThat(list -> ((List<?>) list).size() == 20));
+    }
 
+    @Test
+    void syncAllPokemons_shouldFlushAndPublishPartialSync_whenSyncFailsHalfway() {
+        // Given
+        List<PokemonListResponse.PokemonBasic> basics = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            PokemonListResponse.PokemonBasic basic = new PokemonListResponse.PokemonBasic();
+            basic.setName("pokemon-" + i);
+            basic.setUrl("https://pokeapi.co/api/v2/pokemon/" + i + "/");
+            basics.add(basic);
+        }
+        pokemonListResponse.setResults(basics);
+        ReflectionTestUtils.setField(pokemonSyncService, "batchSize", 5);
+        ReflectionTestUtils.setField(pokemonSyncService, "parallelism", 1);
+
+        doReturn(requestHeadersUriSpec).when(restClient).get();
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        AtomicInteger calls = new AtomicInteger();
+        when(responseSpec.toEntity(byte[].class)).thenAnswer(i -> {
+            if (calls.incrementAndGet() > 7) {
+                throw new CircuitBreakerOpenException("open");
+            }
+            return ResponseEntity.ok(detailJson1);
+        });
+
+        // When
+        assertThrows(RuntimeException.class, () -> pokemonSyncService.syncAllPokemons());
+
+        // Then
+        InOrder inOrder = inOrder(pokemonRepository, eventPublisher);
+        // The full chunk of 5 and the 2 rows still buffered when the circuit breaker opened
+        inOrder.verify(pokemonRepository, times(2)).upsertAll(anyList());
+        inOrder.verify(pokemonRepository).refreshLeaderboards();
+        inOrder.verify(eventPublisher).publishEvent(argThat((PokemonSyncCompletedEvent event) ->
+                event.changed() == 7 && !event.complete()));
+    }
+
+    @Test
+    void syncAllPokemons_shouldWriteInFixedSizeChunks() throws Exception {
+        // Given
+        List<PokemonListResponse.PokemonBasic> basics = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            PokemonListResponse.PokemonBasic basic = new PokemonListResponse.PokemonBasic();
+            basic.setName("pokemon-" + i);
+            basic.setUrl("https://pokeapi.co/api/v2/pokemon/" + i + "/");
+            basics.add(basic);
+        }
+        pokemonListResponse.setResults(basics);
+        ReflectionTestUtils.setField(pokemonSyncService, "batchSize", 5);
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        doAnswer(i -> chunkSizes.add(((List<?>) i.getArgument(0)).size()))
+                .when(pokemonRepository).upsertAll(anyCollection());
+
+        doReturn(requestHeadersUriSpec).when(restClient).get();
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.ok(detailJson1));
+
+        // When
+        pokemonSyncService.syncAllPokemons();
+
+        // Then
+        assertEquals(List.of(5, 5, 2), chunkSizes);
+    }
+
+    @Test
+    void syncAllPokemons_shouldOnlyTouchLastSynced_whenUpstreamReturnsNotModified() throws Exception {
+        // Given
+        pokemonListResponse.setResults(List.of(pokemonListResponse.getResults().get(0)));
+        when(pokemonRepository.findAllSyncStates())
+                .thenReturn(List.of(syncState("uuid-25", 25, "hash", "\"etag-25\"")));
+
+        doReturn(requestHeadersUriSpec).when(restClient).get();
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        // When
+        pokemonSyncService.syncAllPokemons();
+
+        // Then
+        verify(pokemonRepository, never()).upsertAll(anyCollection());
+        verify(pokemonRepository, times(1)).touchLastSynced(eq(List.of(25)), any());
+        verify(objectMapper, never()).getFactory();
+        verify(pokemonRepository, never()).refreshLeaderboards();
+        verify(eventPublisher).publishEvent(any(PokemonSyncCompletedEvent.class));
+    }
+
+    @Test
+    void syncAllPokemons_shouldSkipWrite_whenContentHashIsUnchanged() throws Exception {
+        // Given
+        pokemonListResponse.setResults(List.of(pokemonListResponse.getResults().get(0)));
+        String knownHash = "7a22a577bed649aab888487851ad0d9ff92fe911baa2c1b550945e97efbf90be";
+        when(pokemonRepository.findAllSyncStates())
+                .thenReturn(List.of(syncState("uuid-25", 25, knownHash, null)));
+
+        doReturn(requestHeadersUriSpec).when(restClient).get();
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(ResponseEntity.ok(detailJson1));
+
+        // When
+        pokemonSyncService.syncAllPokemons();
+
+        // Then
+        verify(pokemonRepository, times(1)).touchLastSynced(eq(List.of(25)), any());
+        verify(objectMapper, never()).getFactory();
+    }
+
+    @Test
+    void syncAllPokemons_shouldReuseExistingId_whenPayloadChanged() throws Exception {
+        // Given
+        pokemonListResponse.setResults(List.of(pokemonListResponse.getResults().get(0)));
+        when(pokemonRepository.findAllSyncStates())
+                .thenReturn(List.of(syncState("uuid-25", 25, "stale-hash", null)));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"etag-new\"");
+
+        doReturn(requestHeadersUriSpec).when(restClient).get();
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(PokemonListResponse.class)).thenReturn(pokemonListResponse);
+        when(requestHeadersUriSpec.headers(any())).thenReturn(requestHeadersUriSpec);
+        when(responseSpec.toEntity(byte[].class)).thenReturn(new ResponseEntity<>(detailJson1, headers, HttpStatus.OK));
+        // When
+        pokemonSyncService.syncAllPokemons();
+
+        // Then
+        verify(pokemonRepository, times(1)).upsertAll(argThat(list -> {
+            Pokemon saved = (Pokemon) ((List<?>) list).get(0);
+            return "uuid-25".equals(saved.getId()) && "\"etag-new\"".equals(saved.getEtag());
+        }));
+        verify(pokemonRepository, never()).touchLastSynced(anyCollection(), any());
+    }
+
+    private PokemonSyncState syncState(String id, Integer pokeApiId, String contentHash, String etag) {
+        return new PokemonSyncState() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getPokeApiId() {
+                return pokeApiId;
+            }
+
+            @Override
+            public String getContentHash() {
+                return contentHash;
+            }
+
+            @Override
+            public String getEtag() {
+                return etag;
+            }
+        };
+    }
+
+    /**
+     * Binds the self type of {@link RestClient.RequestHeadersUriSpec}, so the request chain can be stubbed
+     * without raw types. {@link RestClient#get()} returns a wildcard and is stubbed with {@code doReturn}.
+     */
+    private interface RequestSpec extends RestClient.RequestHeadersUriSpec<RequestSpec> {
+    }
+}
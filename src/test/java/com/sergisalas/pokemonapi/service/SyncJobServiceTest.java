@@ -0,0 +1,98 @@
+package com.sergisalas.pokemonapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyncJobServiceTest {
+
+    @Mock
+    private PokemonSyncService pokemonSyncService;
+
+    @InjectMocks
+    private SyncJobService syncJobService;
+
+    @Test
+    void startOrJoin_shouldJoinRunningJob() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(i -> release.await(5, TimeUnit.SECONDS)).when(pokemonSyncService).syncAllPokemons(any(SyncProgress.class));
+
+        // When
+        SyncJob first = syncJobService.startOrJoin();
+        SyncJob second = syncJobService.startOrJoin();
+        release.countDown();
+        awaitFinished(first);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(SyncJob.Status.COMPLETED, first.getStatus());
+        verify(pokemonSyncService, times(1)).syncAllPokemons(any(SyncProgress.class));
+        assertTrue(syncJobService.findJob(first.getId()).isPresent());
+    }
+
+    @Test
+    void startOrJoin_shouldStartNewJob_afterPreviousOneFinished() throws Exception {
+        // When
+        SyncJob first = syncJobService.startOrJoin();
+        awaitFinished(first);
+        SyncJob second = syncJobService.startOrJoin();
+        awaitFinished(second);
+
+        // Then
+        assertNotEquals(first.getId(), second.getId());
+        verify(pokemonSyncService, times(2)).syncAllPokemons(any(SyncProgress.class));
+    }
+
+    @Test
+    void startOrJoin_shouldMarkJobFailed_whenSyncThrows() throws Exception {
+        // Given
+        doThrow(new RuntimeException("PokeAPI down")).when(pokemonSyncService).syncAllPokemons(any(SyncProgress.class));
+
+        // When
+        SyncJob job = syncJobService.startOrJoin();
+        awaitFinished(job);
+
+        // Then
+        assertEquals(SyncJob.Status.FAILED, job.getStatus());
+        assertEquals("PokeAPI down", job.getError());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    void startOrJoin_shouldFreeTheSlot_whenSyncThrowsAnError() throws Exception {
+        // Given
+        doThrow(new OutOfMemoryError("chunk")).doNothing()
+                .when(pokemonSyncService).syncAllPokemons(any(SyncProgress.class));
+
+        // When
+        SyncJob failed = syncJobService.startOrJoin();
+        awaitFinished(failed);
+        SyncJob next = syncJobService.startOrJoin();
+        awaitFinished(next);
+
+        // Then
+        assertEquals(SyncJob.Status.FAILED, failed.getStatus());
+        assertEquals("chunk", failed.getError());
+        assertNotEquals(failed.getId(), next.getId());
+        assertEquals(SyncJob.Status.COMPLETED, next.getStatus());
+    }
+
+    private void awaitFinished(SyncJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (job.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
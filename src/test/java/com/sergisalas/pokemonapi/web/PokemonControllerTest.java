@@ -1,22 +1,37 @@
 package com.sergisalas.pokemonapi.web;
 
 import com.sergisalas.pokemonapi.domain.Pokemon;
+import com.sergisalas.pokemonapi.service.DatasetVersion;
+import com.sergisalas.pokemonapi.service.PokemonRanking;
 import com.sergisalas.pokemonapi.service.PokemonService;
+import com.sergisalas.pokemonapi.service.RankingExport;
+import com.sergisalas.pokemonapi.service.SyncJob;
+import com.sergisalas.pokemonapi.service.dto.PokemonBatchDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonBatchRequest;
 import com.sergisalas.pokemonapi.service.dto.PokemonDto;
+import com.sergisalas.pokemonapi.service.dto.PokemonPageDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,6 +42,9 @@ class PokemonControllerTest {
     @Mock
     private PokemonService pokemonService;
 
+    @Mock
+    private DatasetVersion datasetVersion;
+
     @InjectMocks
     private PokemonController pokemonController;
 
@@ -35,6 +53,7 @@ class PokemonControllerTest {
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(pokemonController).build();
+        lenient().when(datasetVersion.current()).thenReturn(new DatasetVersion.Version(1, Instant.EPOCH));
     }
 
     @Test
@@ -92,17 +111,137 @@ class PokemonControllerTest {
     }
 
     @Test
-    void syncDataBase_shouldCallServiceSync() throws Exception {
+    void getTop_shouldReturnPageWithNextCursor() throws Exception {
+        // Given
+        PokemonPageDto page = new PokemonPageDto(List.of(createPokemonDto("snorlax", null, 4600, null)), "cursor-1");
+        when(pokemonService.getTopPokemon("weight", "desc", 1, null, null, null, null)).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/pokemon/top")
+                        .param("stat", "weight")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("snorlax"))
+                .andExpect(jsonPath("$.next").value("cursor-1"));
+
+        verify(pokemonService, times(1)).getTopPokemon("weight", "desc", 1, null, null, null, null);
+    }
+
+    @Test
+    void getTop_shouldAnswerNotModified_withoutQuerying_whenETagMatches() throws Exception {
+        // Given
+        String etag = new DatasetVersion.Version(1, Instant.EPOCH).etag();
+
+        // When & Then
+        mockMvc.perform(get("/pokemon/top")
+                        .param("stat", "weight")
+                        .param("limit", "1")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(pokemonService, times(1)).checkTopRequest("weight", "desc", 1, null);
+        verify(pokemonService, never()).getTopPokemon(any(), any(), anyInt(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getHeaviest_shouldAnswerNotModified_withoutQuerying_whenETagMatches() throws Exception {
+        // Given
+        String etag = new DatasetVersion.Version(1, Instant.EPOCH).etag();
+
+        // When & Then
+        mockMvc.perform(get("/pokemon/heaviest")
+                        .param("numPokemon", "2")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(pokemonService, times(1)).checkRankingRequest(2);
+        verify(pokemonService, never()).getHeaviestPokemon(anyInt());
+    }
+
+    @Test
+    void getBatch_shouldReturnItemsAndMissing() throws Exception {
+        // Given
+        PokemonBatchDto batch = new PokemonBatchDto(
+                List.of(createPokemonDto("pikachu", 4, 60, 112)), List.of(999), List.of());
+        when(pokemonService.getBatch(new PokemonBatchRequest(List.of(25, 999), null, false))).thenReturn(batch);
+
+        // When & Then
+        mockMvc.perform(post("/pokemon/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [25, 999]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("pikachu"))
+                .andExpect(jsonPath("$.missingIds[0]").value(999));
+    }
+
+    @Test
+    void export_shouldStreamNdjson() throws Exception {
+        // Given
+        RankingExport export = new RankingExport(PokemonRanking.HEIGHT, Sort.Direction.ASC, null);
+        when(pokemonService.exportRanking("height", "asc", null)).thenReturn(export);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"name\":\"pikachu\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(pokemonService).writeExport(eq(export), any(OutputStream.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/pokemon/export")
+                        .param("stat", "height")
+                        .param("order", "asc"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"name\":\"pikachu\"}\n"));
+    }
+
+    @Test
+    void syncDataBase_shouldReturnAcceptedJob() throws Exception {
         // Given
-        doNothing().when(pokemonService).syncDataBase();
+        SyncJob job = new SyncJob("job-1", Instant.now());
+        when(pokemonService.syncDataBase()).thenReturn(job);
 
         // When & Then
         mockMvc.perform(post("/pokemon/sync"))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/pokemon/sync/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("RUNNING"));
 
         verify(pokemonService, times(1)).syncDataBase();
     }
 
+    @Test
+    void getSyncJob_shouldReturnProgress() throws Exception {
+        // Given
+        SyncJob job = new SyncJob("job-1", Instant.now());
+        job.onStarted(3);
+        job.onFetched();
+        job.onFailed();
+        when(pokemonService.getSyncJob("job-1")).thenReturn(Optional.of(job));
+
+        // When & Then
+        mockMvc.perform(get("/pokemon/sync/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.fetched").value(1))
+                .andExpect(jsonPath("$.failed").value(1));
+    }
+
+    @Test
+    void getSyncJob_shouldReturnNotFound_whenJobIsUnknown() throws Exception {
+        // Given
+        when(pokemonService.getSyncJob("missing")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/pokemon/sync/missing"))
+                .andExpect(status().isNotFound());
+    }
+
     private PokemonDto createPokemonDto(String name, Integer height, Integer weight, Integer baseExperience) {
         Pokemon pokemon = createPokemon(name, height, weight, baseExperience);
         return new PokemonDto(pokemon);